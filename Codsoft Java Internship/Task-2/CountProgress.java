@@ -0,0 +1,21 @@
+// CountProgress interface to let long counting runs report how far they got
+// and notice when they should stop. Work is measured in chars for text and in
+// bytes for files; counters throw a CancellationException once cancelled.
+interface CountProgress {
+    // Progress that is not reported anywhere and never cancelled
+    CountProgress NONE = new CountProgress() {
+        @Override
+        public void advance(long units) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    // Called from the counting threads after each finished piece of work
+    void advance(long units);
+
+    boolean isCancelled();
+}
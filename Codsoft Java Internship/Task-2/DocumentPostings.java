@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+// DocumentPostings class to collect where each word occurs in one document,
+// as input for InvertedIndexWriter. Occurrences are buffered in a run of
+// bounded size, each as a single long (local word id in the high half, word
+// position in the low half). When the run is full it is sorted, which groups
+// the positions of each word in ascending order, and appended to the
+// postings of its words as variable-length position deltas: the encoding of
+// the segment files, so the writer copies them as they are. A document
+// costs one to three bytes per word instead of eight, and large files never
+// need one huge array.
+class DocumentPostings implements WordSink {
+    // Occurrences buffered before they are sorted into the postings
+    private static final int RUN_SIZE = 64 * 1024;
+
+    private final WordFrequencyTable words = new WordFrequencyTable(true);
+    private long[] run = new long[1024];
+    private int runLength;
+    private int position; // Position of the next word in the document
+
+    // Per local word id
+    private byte[][] positions = new byte[1024][];
+    private int[] positionsLengths = new int[1024];
+    private int[] occurrenceCounts = new int[1024];
+    private int[] lastPositions = new int[1024];
+
+    @Override
+    public void addWord(CharSequence word) {
+        if (runLength == run.length) {
+            if (run.length < RUN_SIZE) {
+                run = Arrays.copyOf(run, run.length * 2);
+            } else {
+                flushRun();
+            }
+        }
+        long id = words.addAndGetId(word, 1);
+        run[runLength++] = id << 32 | position++;
+    }
+
+    @Override
+    public void endDocument() {
+        flushRun();
+    }
+
+    // Sort the buffered occurrences and append them to the postings of their words
+    private void flushRun() {
+        Arrays.sort(run, 0, runLength);
+        for (int i = 0; i < runLength; i++) {
+            int id = (int) (run[i] >>> 32);
+            int wordPosition = (int) run[i];
+            if (id >= positions.length) {
+                int capacity = Math.max(id + 1, positions.length * 2);
+                positions = Arrays.copyOf(positions, capacity);
+                positionsLengths = Arrays.copyOf(positionsLengths, capacity);
+                occurrenceCounts = Arrays.copyOf(occurrenceCounts, capacity);
+                lastPositions = Arrays.copyOf(lastPositions, capacity);
+            }
+            if (positions[id] == null) {
+                positions[id] = new byte[8];
+            }
+            writeVarInt(id, wordPosition - lastPositions[id]);
+            lastPositions[id] = wordPosition;
+            occurrenceCounts[id]++;
+        }
+        runLength = 0;
+    }
+
+    private void writeVarInt(int id, int value) {
+        byte[] bytes = positions[id];
+        int length = positionsLengths[id];
+        if (bytes.length - length < 5) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            positions[id] = bytes;
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+        positionsLengths[id] = length;
+    }
+
+    // Number of words in the document
+    public int getWordCount() {
+        return position;
+    }
+
+    // Number of distinct words; their local ids are 0 to wordCount() - 1
+    int wordCount() {
+        flushRun(); // In case the document was not ended
+        return words.size();
+    }
+
+    String wordOf(int id) {
+        return words.wordById(id);
+    }
+
+    int occurrenceCount(int id) {
+        return occurrenceCounts[id];
+    }
+
+    // The positions of the word as variable-length deltas, in the first positionsLength(id) bytes
+    byte[] positions(int id) {
+        return positions[id];
+    }
+
+    int positionsLength(int id) {
+        return positionsLengths[id];
+    }
+}
@@ -0,0 +1,116 @@
+// HyperLogLog class to estimate the number of distinct words in a few KB of
+// memory. Each word is hashed to 64 bits; the first p bits pick one of 2^p
+// registers, which keeps the longest run of leading zeros seen in the rest of
+// the hash. The relative standard error is about 1.04 / sqrt(2^p).
+// Sketches with the same precision can be merged, e.g. one per file or per
+// worker, and give the same estimate as one sketch over all the input.
+class HyperLogLog {
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(CharSequence word) {
+        long hash = hash(word);
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits, plus one; the low sentinel bit caps the run
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    // Combine with a sketch of other input, as if all of it had been added to this one
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    // Estimated number of distinct words added
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int emptyRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                emptyRegisters++;
+            }
+        }
+
+        double alpha;
+        if (m == 16) {
+            alpha = 0.673;
+        } else if (m == 32) {
+            alpha = 0.697;
+        } else if (m == 64) {
+            alpha = 0.709;
+        } else {
+            alpha = 0.7213 / (1 + 1.079 / m);
+        }
+        double estimate = alpha * m * m / sum;
+
+        // Small cardinalities are estimated better by counting empty registers
+        if (estimate <= 2.5 * m && emptyRegisters > 0) {
+            estimate = m * Math.log((double) m / emptyRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    // Relative standard error of estimate()
+    public double getStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    // The registers with the precision in front, to store a sketch and merge it later
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromByteArray(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        if (bytes.length != sketch.registers.length + 1) {
+            throw new IllegalArgumentException("Expected " + (sketch.registers.length + 1) + " bytes, got " + bytes.length);
+        }
+        System.arraycopy(bytes, 1, sketch.registers, 0, sketch.registers.length);
+        return sketch;
+    }
+
+    // 64-bit FNV-1a over the chars, finished with the MurmurHash3 mixer so every bit depends on every char
+    static long hash(CharSequence word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            h ^= word.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,23 @@
+// IndexHit class to hold one document found in the inverted index: its name,
+// how often the word occurs in it and the word positions (0 = first word)
+class IndexHit {
+    private final String document;
+    private final int[] positions;
+
+    public IndexHit(String document, int[] positions) {
+        this.document = document;
+        this.positions = positions;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+
+    public int getFrequency() {
+        return positions.length;
+    }
+
+    public int[] getPositions() {
+        return positions;
+    }
+}
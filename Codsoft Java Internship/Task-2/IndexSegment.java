@@ -0,0 +1,207 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// IndexSegment class to search one segment file written by InvertedIndexWriter.
+// The file is memory-mapped, so opening it only reads the header and the
+// document names; a lookup is a binary search over the fixed-size word table
+// followed by decoding the postings of that one word. Documents that were
+// indexed again in a newer segment are marked superseded and left out of
+// the results. A buffer cannot be larger than 2 GB, so the file is mapped in
+// pieces of 1 GB and read at long offsets.
+class IndexSegment implements Closeable {
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final String[] documents;
+    private final boolean[] superseded;
+    private int supersededCount;
+    private final int wordCount;
+    private final long wordTableOffset;
+    private final long wordBytesOffset;
+
+    public IndexSegment(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < InvertedIndexWriter.HEADER_SIZE) {
+            channel.close();
+            throw new IOException("Not an index segment: " + file);
+        }
+        chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << CHUNK_BITS;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_MASK + 1, size - start));
+        }
+        if (getInt(0) != InvertedIndexWriter.MAGIC || getInt(4) != InvertedIndexWriter.VERSION) {
+            channel.close();
+            throw new IOException("Not an index segment: " + file);
+        }
+        int documentCount = getInt(8);
+        wordCount = getInt(12);
+        long documentTableOffset = getLong(16);
+        wordTableOffset = getLong(24);
+        wordBytesOffset = getLong(32);
+
+        documents = new String[documentCount];
+        superseded = new boolean[documentCount];
+        long offset = documentTableOffset;
+        for (int i = 0; i < documentCount; i++) {
+            int length = getInt(offset);
+            documents[i] = decode(offset + 4, length);
+            offset += 4 + length;
+        }
+    }
+
+    public int getDocumentCount() {
+        return documents.length;
+    }
+
+    public String getDocumentName(int document) {
+        return documents[document];
+    }
+
+    // Leave the document out of searches, since a newer version of it was indexed
+    void supersede(int document) {
+        if (!superseded[document]) {
+            superseded[document] = true;
+            supersededCount++;
+        }
+    }
+
+    public int getLiveDocumentCount() {
+        return documents.length - supersededCount;
+    }
+
+    // The documents of this segment containing the word, in the order they were added,
+    // except superseded ones
+    public List<IndexHit> search(String word) {
+        List<IndexHit> hits = new ArrayList<>();
+        int entry = find(word.getBytes(StandardCharsets.UTF_8));
+        if (entry < 0) {
+            return hits;
+        }
+
+        long entryOffset = wordTableOffset + (long) entry * InvertedIndexWriter.WORD_ENTRY_SIZE;
+        VarIntReader postings = new VarIntReader(getLong(entryOffset + 8));
+        int documentFrequency = getInt(entryOffset + 20);
+
+        int documentId = 0;
+        for (int i = 0; i < documentFrequency; i++) {
+            documentId += postings.next();
+            int[] positions = new int[postings.next()];
+            int position = 0;
+            for (int j = 0; j < positions.length; j++) {
+                position += postings.next();
+                positions[j] = position;
+            }
+            if (!superseded[documentId]) {
+                hits.add(new IndexHit(documents[documentId], positions));
+            }
+        }
+        return hits;
+    }
+
+    // Binary search of the word table; returns the entry index or -1
+    private int find(byte[] word) {
+        int low = 0;
+        int high = wordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = compareWord(middle, word);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // Compare the word of an entry with the given bytes, unsigned, without copying it
+    private int compareWord(int entry, byte[] word) {
+        long entryOffset = wordTableOffset + (long) entry * InvertedIndexWriter.WORD_ENTRY_SIZE;
+        long start = wordBytesOffset + getInt(entryOffset);
+        int length = getInt(entryOffset + 4);
+        int common = Math.min(length, word.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(getByte(start + i), word[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, word.length);
+    }
+
+    private byte getByte(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & CHUNK_MASK));
+    }
+
+    // Big-endian, like the writer; assembled from bytes where it crosses into the next piece
+    private int getInt(long offset) {
+        MappedByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)];
+        int index = (int) (offset & CHUNK_MASK);
+        if (index + 4 <= chunk.limit()) {
+            return chunk.getInt(index);
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = value << 8 | (getByte(offset + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private long getLong(long offset) {
+        return (long) getInt(offset) << 32 | (getInt(offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private String decode(long offset, int length) {
+        byte[] bytes = new byte[length];
+        MappedByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)];
+        int index = (int) (offset & CHUNK_MASK);
+        if (index + length <= chunk.limit()) {
+            chunk.get(index, bytes);
+        } else {
+            for (int i = 0; i < length; i++) {
+                bytes[i] = getByte(offset + i);
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Reads the variable-length integers (7 bits per byte) of the postings from an offset on
+    private class VarIntReader {
+        private long offset;
+
+        VarIntReader(long offset) {
+            this.offset = offset;
+        }
+
+        int next() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = getByte(offset++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
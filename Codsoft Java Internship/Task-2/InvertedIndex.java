@@ -0,0 +1,72 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// InvertedIndex class to search all segments of an index directory written
+// by InvertedIndexWriter. The segments are opened once; each search only
+// touches the pages of the word table and postings it needs. A document
+// that was indexed more than once is only found in its newest version.
+class InvertedIndex implements Closeable {
+    private final List<IndexSegment> segments = new ArrayList<>();
+
+    public InvertedIndex(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + InvertedIndexWriter.SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files); // Oldest segment first, so documents keep the order they were added in
+        try {
+            for (Path file : files) {
+                segments.add(new IndexSegment(file));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+
+        // Going from the newest document back, any name seen already was indexed again later
+        Set<String> newer = new HashSet<>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            IndexSegment segment = segments.get(i);
+            for (int document = segment.getDocumentCount() - 1; document >= 0; document--) {
+                if (!newer.add(segment.getDocumentName(document))) {
+                    segment.supersede(document);
+                }
+            }
+        }
+    }
+
+    // Number of distinct documents
+    public int getDocumentCount() {
+        int count = 0;
+        for (IndexSegment segment : segments) {
+            count += segment.getLiveDocumentCount();
+        }
+        return count;
+    }
+
+    // Every indexed document containing the (lowercase) word, with the positions it occurs at
+    public List<IndexHit> search(String word) {
+        List<IndexHit> hits = new ArrayList<>();
+        for (IndexSegment segment : segments) {
+            hits.addAll(segment.search(word));
+        }
+        return hits;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (IndexSegment segment : segments) {
+            segment.close();
+        }
+    }
+}
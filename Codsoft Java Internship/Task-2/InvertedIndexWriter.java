@@ -0,0 +1,276 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// InvertedIndexWriter class to add documents to an on-disk word index. The
+// postings of the added documents (for every word: the documents it occurs
+// in, how often and at which positions) are buffered in memory and written
+// as a new segment file when the buffer is full or the writer is closed.
+// Existing segments are never changed, so readers can keep using them.
+// A document added again under the same name replaces the earlier one: it
+// goes into a newer segment, and InvertedIndex only searches the newest
+// version of each document. Only one writer can use a directory at a time;
+// it holds a lock on the write.lock file there until it is closed.
+//
+// Segment layout (big-endian):
+//   header      magic, version, document count, word count (ints),
+//               offsets of the document table, word table and word bytes (longs)
+//   postings    per word, sorted by word: for each document the document id
+//               delta, the number of occurrences and the position deltas, all
+//               as variable-length integers (7 bits per byte)
+//   documents   per document: name length (int) and UTF-8 name
+//   word table  per word: offset and length of its UTF-8 bytes (ints),
+//               offset (long) and length (int) of its postings, document count (int)
+//   word bytes  UTF-8 of all words, back to back, in unsigned byte order
+class InvertedIndexWriter implements Closeable {
+    static final int MAGIC = 0x57494458; // "WIDX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 40;
+    static final int WORD_ENTRY_SIZE = 24;
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String LOCK_FILE = "write.lock";
+
+    // Directories locked by writers of this process. Checked before opening the lock file, since
+    // closing any channel of a file may release every lock the process holds on it.
+    private static final Set<Path> LOCKED_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+    // Buffered postings bytes before a segment is written
+    private static final int DEFAULT_BUFFER_LIMIT = 64 * 1024 * 1024;
+
+    private final Path directory; // Real path
+    private final int bufferLimit;
+
+    private final FileChannel lockChannel; // Closing it releases the lock
+    private final List<String> documents = new ArrayList<>();
+    private final Set<String> documentNames = new HashSet<>(); // Of documents, for finding ones added twice
+    private WordFrequencyTable words = new WordFrequencyTable(true); // Word -> id in the arrays below
+    private byte[][] postings = new byte[1024][];
+    private int[] postingsLengths = new int[1024];
+    private int[] lastDocuments = new int[1024];
+    private int[] documentCounts = new int[1024];
+    private long bufferedBytes;
+
+    public InvertedIndexWriter(Path directory) throws IOException {
+        this(directory, DEFAULT_BUFFER_LIMIT);
+    }
+
+    public InvertedIndexWriter(Path directory, int bufferLimit) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory.toRealPath();
+        this.bufferLimit = bufferLimit;
+        if (!LOCKED_DIRECTORIES.add(this.directory)) {
+            throw new IOException("Index " + directory + " is being written by another writer");
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(this.directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Index " + directory + " is being written by another process");
+            }
+        } catch (IOException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            LOCKED_DIRECTORIES.remove(this.directory);
+            throw e;
+        }
+        lockChannel = channel;
+    }
+
+    // Add the postings of one document under the given name (e.g. its canonical path),
+    // replacing any document added under that name before
+    public void addDocument(String name, DocumentPostings document) throws IOException {
+        if (documentNames.contains(name)) {
+            flush(); // The new version goes into a later segment, which replaces this one
+        }
+        int documentId = documents.size();
+        documents.add(name);
+        documentNames.add(name);
+
+        int wordCount = document.wordCount();
+        for (int word = 0; word < wordCount; word++) {
+            addPostings(document, word, documentId);
+        }
+
+        if (bufferedBytes >= bufferLimit) {
+            flush();
+        }
+    }
+
+    // The positions are already encoded like the postings, so they are copied as they are
+    private void addPostings(DocumentPostings document, int word, int documentId) {
+        int id = words.addAndGetId(document.wordOf(word), 1);
+        if (id == postings.length) {
+            int capacity = id * 2;
+            postings = Arrays.copyOf(postings, capacity);
+            postingsLengths = Arrays.copyOf(postingsLengths, capacity);
+            lastDocuments = Arrays.copyOf(lastDocuments, capacity);
+            documentCounts = Arrays.copyOf(documentCounts, capacity);
+        }
+        if (postings[id] == null) {
+            postings[id] = new byte[16];
+            lastDocuments[id] = 0;
+        }
+
+        int before = postingsLengths[id];
+        writeVarInt(id, documentId - lastDocuments[id]);
+        writeVarInt(id, document.occurrenceCount(word));
+        int length = document.positionsLength(word);
+        if (postings[id].length - postingsLengths[id] < length) {
+            postings[id] = Arrays.copyOf(postings[id], Math.max(postings[id].length * 2, postingsLengths[id] + length));
+        }
+        System.arraycopy(document.positions(word), 0, postings[id], postingsLengths[id], length);
+        postingsLengths[id] += length;
+        lastDocuments[id] = documentId;
+        documentCounts[id]++;
+        bufferedBytes += postingsLengths[id] - before;
+    }
+
+    private void writeVarInt(int id, int value) {
+        byte[] bytes = postings[id];
+        int length = postingsLengths[id];
+        if (bytes.length - length < 5) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            postings[id] = bytes;
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+        postingsLengths[id] = length;
+    }
+
+    // Write the buffered documents as a new segment
+    public void flush() throws IOException {
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        // Words in unsigned UTF-8 byte order, the order the reader searches in
+        int wordCount = words.size();
+        byte[][] wordBytes = new byte[wordCount][];
+        Integer[] order = new Integer[wordCount];
+        for (int slot = 0; slot < words.capacity(); slot++) {
+            if (words.wordAt(slot) != null) {
+                int id = words.idAt(slot);
+                wordBytes[id] = words.wordAt(slot).getBytes(StandardCharsets.UTF_8);
+                order[id] = id;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(wordBytes[a], wordBytes[b]));
+
+        long postingsSize = 0;
+        for (int id = 0; id < wordCount; id++) {
+            postingsSize += postingsLengths[id];
+        }
+        byte[][] documentNames = new byte[documents.size()][];
+        long documentsSize = 0;
+        for (int i = 0; i < documentNames.length; i++) {
+            documentNames[i] = documents.get(i).getBytes(StandardCharsets.UTF_8);
+            documentsSize += 4 + documentNames[i].length;
+        }
+        long documentTableOffset = HEADER_SIZE + postingsSize;
+        long wordTableOffset = documentTableOffset + documentsSize;
+        long wordBytesOffset = wordTableOffset + (long) wordCount * WORD_ENTRY_SIZE;
+
+        // Write to a temporary file first, so readers never see a partial segment
+        Path temporary = Files.createTempFile(directory, "segment", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(documents.size());
+            out.writeInt(wordCount);
+            out.writeLong(documentTableOffset);
+            out.writeLong(wordTableOffset);
+            out.writeLong(wordBytesOffset);
+
+            for (int id : order) {
+                out.write(postings[id], 0, postingsLengths[id]);
+            }
+            for (byte[] name : documentNames) {
+                out.writeInt(name.length);
+                out.write(name);
+            }
+            long postingsOffset = HEADER_SIZE;
+            int wordOffset = 0;
+            for (int id : order) {
+                out.writeInt(wordOffset);
+                out.writeInt(wordBytes[id].length);
+                out.writeLong(postingsOffset);
+                out.writeInt(postingsLengths[id]);
+                out.writeInt(documentCounts[id]);
+                postingsOffset += postingsLengths[id];
+                wordOffset += wordBytes[id].length;
+            }
+            for (int id : order) {
+                out.write(wordBytes[id]);
+            }
+        }
+        Files.move(temporary, nextSegmentFile(), StandardCopyOption.ATOMIC_MOVE);
+
+        clear();
+    }
+
+    // Segments are numbered in the order they are written, zero-padded so their names sort the same way
+    private Path nextSegmentFile() throws IOException {
+        long last = -1;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    last = Math.max(last, Long.parseLong(name.substring(8, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment of this writer; ignore it
+                }
+            }
+        }
+        return directory.resolve(String.format(Locale.ROOT, "segment-%010d%s", last + 1, SEGMENT_SUFFIX));
+    }
+
+    private void clear() {
+        documents.clear();
+        documentNames.clear();
+        Arrays.fill(postings, null);
+        Arrays.fill(postingsLengths, 0);
+        Arrays.fill(documentCounts, 0);
+        bufferedBytes = 0;
+        words = new WordFrequencyTable(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            try {
+                lockChannel.close();
+            } finally {
+                LOCKED_DIRECTORIES.remove(directory);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DocumentFilter;
+import javax.swing.text.Segment;
+
+// LiveWordCounter class to keep the word statistics of a document up to date
+// while it is edited. Only the edited text plus the partial words touching
+// it on either side are tokenized: the words of that region before the edit
+// are subtracted and the words after the edit are added, so the cost of an
+// edit depends on its size and not on the size of the document.
+class LiveWordCounter implements DocumentListener {
+    // How many chars are fetched at a time when looking for a word boundary
+    private static final int SCAN_CHUNK = 64;
+
+    private final AbstractDocument document;
+    private final WordCountOptions options;
+    private final Runnable onChange; // Called after every update of the statistics
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    private final Segment segment = new Segment();
+
+    private WordStatistics statistics;
+    private String pendingRemoval; // Text about to be removed, captured by the document filter
+
+    // Live counting needs exact statistics, since sketches cannot forget words
+    public LiveWordCounter(AbstractDocument document, WordCountOptions options, Runnable onChange) {
+        if (options.isApproximate()) {
+            throw new IllegalArgumentException("Live counting needs exact statistics");
+        }
+        this.document = document;
+        this.options = options;
+        this.onChange = onChange;
+    }
+
+    // Count the whole document once, then follow its edits
+    public void start() {
+        recount();
+        document.setDocumentFilter(new RemovalCapture());
+        document.addDocumentListener(this);
+    }
+
+    public void stop() {
+        document.removeDocumentListener(this);
+        document.setDocumentFilter(null);
+    }
+
+    public WordStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void recount() {
+        statistics = new WordStatistics(options);
+        try {
+            statistics.addWords(tokenizer.reset(document.getText(0, document.getLength())));
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+        onChange.run();
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        try {
+            int offset = e.getOffset();
+            int end = offset + e.getLength();
+            String before = text(wordStart(offset), offset);
+            String after = text(end, wordEnd(end));
+            update(before + after, before + text(offset, end) + after);
+        } catch (BadLocationException ex) {
+            recount();
+        }
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        String removed = pendingRemoval;
+        pendingRemoval = null;
+        if (removed == null || removed.length() != e.getLength()) {
+            recount(); // Removal was not seen by the filter
+            return;
+        }
+        try {
+            int offset = e.getOffset();
+            String before = text(wordStart(offset), offset);
+            String after = text(offset, wordEnd(offset));
+            update(before + removed + after, before + after);
+        } catch (BadLocationException ex) {
+            recount();
+        }
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+        // Attribute changes do not change the text
+    }
+
+    // Replace the words of the old region with the words of the new region
+    private void update(String oldRegion, String newRegion) {
+        tokenizer.reset(oldRegion);
+        while (tokenizer.next()) {
+            statistics.removeWord(tokenizer.token());
+        }
+        statistics.addWords(tokenizer.reset(newRegion));
+        onChange.run();
+    }
+
+    private String text(int start, int end) throws BadLocationException {
+        return document.getText(start, end - start);
+    }
+
+    // Start of the word containing the char before offset, or offset itself if that char is a delimiter
+    private int wordStart(int offset) throws BadLocationException {
+        int start = offset;
+        while (start > 0) {
+            int chunk = Math.min(SCAN_CHUNK, start);
+            document.getText(start - chunk, chunk, segment);
+            for (int i = chunk - 1; i >= 0; i--) {
+                if (WordTokenizer.isDelimiter(segment.array[segment.offset + i])) {
+                    return start - chunk + i + 1;
+                }
+            }
+            start -= chunk;
+        }
+        return 0;
+    }
+
+    // End of the word containing the char at offset, or offset itself if that char is a delimiter
+    private int wordEnd(int offset) throws BadLocationException {
+        int end = offset;
+        int length = document.getLength();
+        while (end < length) {
+            int chunk = Math.min(SCAN_CHUNK, length - end);
+            document.getText(end, chunk, segment);
+            for (int i = 0; i < chunk; i++) {
+                if (WordTokenizer.isDelimiter(segment.array[segment.offset + i])) {
+                    return end + i;
+                }
+            }
+            end += chunk;
+        }
+        return length;
+    }
+
+    // Document filter to remember text before it is removed, since the removal event no longer has it
+    private class RemovalCapture extends DocumentFilter {
+        @Override
+        public void remove(FilterBypass fb, int offset, int length) throws BadLocationException {
+            pendingRemoval = fb.getDocument().getText(offset, length);
+            super.remove(fb, offset, length);
+        }
+
+        @Override
+        public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) throws BadLocationException {
+            if (length > 0) {
+                pendingRemoval = fb.getDocument().getText(offset, length);
+            }
+            super.replace(fb, offset, length, text, attrs);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+
+// MappedFileWordCounter class to count the words of (UTF-8) text files without
+// loading them into memory. Files are mapped region by region and tokenized
+// directly from the bytes, using the same word boundaries as WordTokenizer:
+// whitespace and ASCII punctuation.
+class MappedFileWordCounter {
+    // Size of each mapped region, so files larger than 2 GB can be counted too
+    private static final long REGION_SIZE = 64L * 1024 * 1024;
+    // Progress is reported (and cancellation checked) after every step of this many bytes
+    private static final int PROGRESS_STEP = 1024 * 1024;
+    // Longest word kept in one piece; a longer run of bytes without a delimiter
+    // (such as a binary file) is split into words of this size, so the word
+    // buffer stays small however large the file is
+    private static final int MAX_WORD_BYTES = 64 * 1024;
+
+    private final WordSink sink;
+    private final WordToken token = new WordToken();
+    private CountProgress progress = CountProgress.NONE;
+
+    // Bytes of the word currently being read; carried over between regions
+    private byte[] wordBytes = new byte[64];
+    private int wordLength;
+    private boolean asciiWord = true;
+    private long tokenCount;
+
+    public MappedFileWordCounter(WordSink sink) {
+        this.sink = sink;
+    }
+
+    public void setProgress(CountProgress progress) {
+        this.progress = progress;
+    }
+
+    // Number of words read so far, including any the sink ignores
+    public long getTokenCount() {
+        return tokenCount;
+    }
+
+    public void count(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long regionSize = Math.min(REGION_SIZE, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                while (region.hasRemaining()) {
+                    int step = Math.min(PROGRESS_STEP, region.remaining());
+                    for (int i = 0; i < step; i++) {
+                        byte b = region.get();
+                        if (WordTokenizer.isDelimiter(b)) {
+                            endWord();
+                        } else {
+                            appendByte(b);
+                        }
+                    }
+                    progress.advance(step);
+                    if (progress.isCancelled()) {
+                        throw new CancellationException("Counting cancelled");
+                    }
+                }
+                position += regionSize;
+            }
+        }
+        endWord(); // A word may run up to the end of the file
+        sink.endDocument();
+    }
+
+    private void appendByte(byte b) {
+        // Split only before the first byte of a character, never inside one
+        if (wordLength >= MAX_WORD_BYTES && (b & 0xC0) != 0x80) {
+            endWord();
+        }
+        if (wordLength == wordBytes.length) {
+            // Room for the continuation bytes of a character started just below the limit
+            byte[] larger = new byte[Math.min(wordBytes.length * 2, MAX_WORD_BYTES + 3)];
+            System.arraycopy(wordBytes, 0, larger, 0, wordLength);
+            wordBytes = larger;
+        }
+        if (b >= 'A' && b <= 'Z') {
+            b += 'a' - 'A'; // Lowercase ASCII letters in place
+        } else if (b < 0) {
+            asciiWord = false;
+        }
+        wordBytes[wordLength++] = b;
+    }
+
+    private void endWord() {
+        if (wordLength == 0) {
+            return;
+        }
+        token.clear();
+        if (asciiWord) {
+            // Already lowercased, every byte is one char
+            for (int i = 0; i < wordLength; i++) {
+                token.append((char) wordBytes[i]);
+            }
+        } else {
+            // Lowercased as a whole, like WordTokenizer does for such words
+            token.append(new String(wordBytes, 0, wordLength, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT));
+        }
+        wordLength = 0;
+        asciiWord = true;
+
+        tokenCount++;
+        sink.addWord(token);
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.List;
+import java.util.PriorityQueue;
+
+// NGramTable class to count n-grams (runs of n consecutive words) within a
+// memory ceiling. An n-gram is stored as a packed tuple of n word ids from a
+// WordFrequencyTable, in one int[] next to an int[] of counts, so no String
+// is built per n-gram. When the table is full and may not grow any more, the
+// least frequent n-grams are pruned until it is half full again; the counts
+// of the remaining n-grams may then be too low by at most the sum of the
+// pruning thresholds (see getMaximumUndercount()).
+class NGramTable {
+    private static final int INITIAL_CAPACITY = 1024; // Must be a power of two
+
+    private final int n;
+    private final int maxCapacity;
+
+    private int[] keys;   // n ids per slot
+    private int[] counts; // 0 marks an empty slot
+    private int size;
+    private int mask;
+    private long maximumUndercount;
+
+    public NGramTable(int n, long memoryLimit) {
+        if (n < 2) {
+            throw new IllegalArgumentException("N-grams need at least 2 words: " + n);
+        }
+        this.n = n;
+
+        // Every slot costs n ids plus a count
+        long slotBytes = 4L * (n + 1);
+        int capacity = 16;
+        while ((long) capacity * 2 * slotBytes <= memoryLimit && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        this.maxCapacity = capacity;
+        allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity * n];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(int[] ids, int from, int n) {
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            h = (h + ids[from + i]) * 0x9E3779B9;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // Count one occurrence of the n-gram formed by ids[from] .. ids[from + n - 1]
+    public void add(int[] ids, int from) {
+        add(ids, from, 1);
+    }
+
+    private void add(int[] ids, int from, int delta) {
+        int slot = hash(ids, from, n) & mask;
+        while (counts[slot] != 0) {
+            if (keyEquals(slot, ids, from)) {
+                counts[slot] += delta;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        System.arraycopy(ids, from, keys, slot * n, n);
+        counts[slot] = delta;
+        if (++size > (mask + 1) * 3 / 4) {
+            if (mask + 1 < maxCapacity) {
+                rebuild(mask + 1 << 1, 0);
+            } else {
+                prune();
+            }
+        }
+    }
+
+    private boolean keyEquals(int slot, int[] ids, int from) {
+        int base = slot * n;
+        for (int i = 0; i < n; i++) {
+            if (keys[base + i] != ids[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Add all n-grams of another table, translating its word ids through newIds (null keeps them)
+    public void addAll(NGramTable other, int[] newIds) {
+        int[] ids = new int[n];
+        for (int slot = 0; slot < other.counts.length; slot++) {
+            if (other.counts[slot] != 0) {
+                for (int i = 0; i < n; i++) {
+                    int id = other.keys[slot * n + i];
+                    ids[i] = newIds != null ? newIds[id] : id;
+                }
+                add(ids, 0, other.counts[slot]);
+            }
+        }
+        maximumUndercount += other.maximumUndercount;
+    }
+
+    // Drop the least frequent n-grams until at most half of the slots are used
+    private void prune() {
+        // Histogram of the small counts to find the lowest threshold that frees enough room
+        int[] histogram = new int[256];
+        for (int count : counts) {
+            if (count != 0 && count < histogram.length) {
+                histogram[count]++;
+            }
+        }
+        int target = (mask + 1) / 2;
+        int remaining = size;
+        int threshold = 0;
+        while (remaining > target && threshold + 1 < histogram.length) {
+            threshold++;
+            remaining -= histogram[threshold];
+        }
+        // Rare: most n-grams are frequent, keep doubling the threshold
+        while (remaining > target) {
+            threshold *= 2;
+            remaining = 0;
+            for (int count : counts) {
+                if (count > threshold) {
+                    remaining++;
+                }
+            }
+        }
+        maximumUndercount += threshold;
+        rebuild(mask + 1, threshold);
+    }
+
+    // Move all n-grams with a count above minCount into a table of the given capacity
+    private void rebuild(int capacity, int minCount) {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldCounts.length; slot++) {
+            if (oldCounts[slot] > minCount) {
+                int target = hash(oldKeys, slot * n, n) & mask;
+                while (counts[target] != 0) {
+                    target = (target + 1) & mask;
+                }
+                System.arraycopy(oldKeys, slot * n, keys, target * n, n);
+                counts[target] = oldCounts[slot];
+                size++;
+            }
+        }
+    }
+
+    // The k most frequent n-grams as phrases of words, most frequent first
+    public List<RankedWord> top(int k, WordFrequencyTable words) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>((a, b) -> Integer.compare(counts[a], counts[b]));
+        for (int slot = 0; slot < counts.length && k > 0; slot++) {
+            if (counts[slot] == 0) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(slot);
+            } else if (counts[slot] > counts[heap.peek()]) {
+                heap.poll();
+                heap.add(slot);
+            }
+        }
+
+        // Empty the heap from the least frequent n-gram, filling the ranking from the back
+        RankedWord[] ranking = new RankedWord[heap.size()];
+        while (!heap.isEmpty()) {
+            int slot = heap.poll();
+            StringBuilder phrase = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    phrase.append(' ');
+                }
+                phrase.append(words.wordById(keys[slot * n + i]));
+            }
+            ranking[heap.size()] = new RankedWord(phrase.toString(), counts[slot], 0);
+        }
+        return List.of(ranking);
+    }
+
+    // Number of distinct n-grams currently counted
+    public int size() {
+        return size;
+    }
+
+    // Upper bound for how much any count may be too low because of pruning
+    public long getMaximumUndercount() {
+        return maximumUndercount;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// ParallelWordCounter class to count the words of a large text on a fork/join
+// pool. The text is split in halves at word boundaries until the pieces are
+// small enough; every worker counts its piece into its own WordStatistics and
+// the partial results are merged on the way back up, so no table is shared
+// between threads. The result is the same as counting the text serially.
+// Progress is reported per piece, and a cancelled run stops at the next piece.
+class ParallelWordCounter {
+    // Pieces smaller than this (in chars) are counted by a single worker
+    private static final int SPLIT_THRESHOLD = 1 << 16;
+
+    private final WordCountOptions options;
+    private final ForkJoinPool pool;
+    private CountProgress progress = CountProgress.NONE;
+
+    public ParallelWordCounter(WordCountOptions options) {
+        this(options, ForkJoinPool.commonPool());
+    }
+
+    public ParallelWordCounter(WordCountOptions options, ForkJoinPool pool) {
+        this.options = options;
+        this.pool = pool;
+    }
+
+    public void setProgress(CountProgress progress) {
+        this.progress = progress;
+    }
+
+    // The text must not change while it is being counted
+    public WordStatistics count(CharSequence text) {
+        if (text.length() <= SPLIT_THRESHOLD) {
+            return countRange(text, 0, text.length());
+        }
+        return pool.invoke(new CountTask(text, 0, text.length()));
+    }
+
+    private WordStatistics countRange(CharSequence text, int start, int end) {
+        if (progress.isCancelled()) {
+            throw new CancellationException("Counting cancelled");
+        }
+        WordStatistics statistics = new WordStatistics(options);
+        statistics.addWords(new WordTokenizer().reset(text, start, end));
+        progress.advance(end - start);
+        return statistics;
+    }
+
+    private class CountTask extends RecursiveTask<WordStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+
+        CountTask(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected WordStatistics compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                return countRange(text, start, end);
+            }
+
+            // Move the split point forward to a delimiter so no word is cut in two
+            int middle = start + (end - start) / 2;
+            while (middle < end && !WordTokenizer.isDelimiter(text.charAt(middle))) {
+                middle++;
+            }
+            if (middle == end) {
+                return countRange(text, start, end);
+            }
+
+            CountTask left = new CountTask(text, start, middle);
+            CountTask right = new CountTask(text, middle, end);
+            left.fork();
+            WordStatistics rightStatistics = right.compute();
+            WordStatistics statistics = left.join();
+            statistics.mergeFollowing(rightStatistics);
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// RankedWord class to represent one entry of a ranking: a word, its counted
+// occurrences and, for approximate rankings, by how much the count may be too high
+class RankedWord {
+    private String word;
+    private long count;
+    private long error;
+
+    public RankedWord(String word, long count, long error) {
+        this.word = word;
+        this.count = count;
+        this.error = error;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        if (error > 0) {
+            return "Word '" + word + "': " + count + " occurrences (at most " + error + " too high)";
+        }
+        return "Word '" + word + "': " + count + " occurrences";
+    }
+}
@@ -0,0 +1,62 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+// RankedWordTableModel class to show a word ranking in a JTable. Cells are
+// read straight from the ranking when the table paints them, so only the
+// rows that are scrolled into view are ever rendered.
+class RankedWordTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] columnNames;
+    private final List<RankedWord> ranking;
+    private final boolean showErrors; // Only approximate rankings have an error column
+
+    // itemName is the header of the column with the ranked words or phrases
+    public RankedWordTableModel(List<RankedWord> ranking, String itemName, boolean showErrors) {
+        this.columnNames = new String[] {"Rank", itemName, "Occurrences", "Max. Overcount"};
+        this.ranking = ranking;
+        this.showErrors = showErrors;
+    }
+
+    @Override
+    public int getRowCount() {
+        return ranking.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return showErrors ? 4 : 3;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0:
+                return Integer.class;
+            case 1:
+                return String.class;
+            default:
+                return Long.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        RankedWord entry = ranking.get(row);
+        switch (column) {
+            case 0:
+                return row + 1;
+            case 1:
+                return entry.getWord();
+            case 2:
+                return entry.getCount();
+            default:
+                return entry.getError();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// SpaceSavingSketch class to find the most frequent words of a stream in fixed
+// memory (the Space-Saving algorithm). At most ceil(1 / errorBound) words are
+// monitored; when a new word arrives and the sketch is full, it takes over the
+// counter of the least frequent monitored word. Every reported count is at
+// most errorBound * (number of words seen) too high, and every word occurring
+// more often than that is guaranteed to be monitored.
+class SpaceSavingSketch {
+    private final int capacity;
+
+    // Monitored words as a min-heap on count, so the eviction candidate is at index 0
+    private final String[] words;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+    private long totalWords;
+
+    // Heap position + 1 of every monitored word
+    private final WordFrequencyTable positions;
+
+    public SpaceSavingSketch(double errorBound) {
+        this.capacity = (int) Math.ceil(1 / errorBound);
+        this.words = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new WordFrequencyTable(capacity);
+    }
+
+    public void add(CharSequence word) {
+        totalWords++;
+        int position = positions.get(word) - 1;
+        if (position >= 0) {
+            counts[position]++;
+            siftDown(position);
+        } else if (size < capacity) {
+            words[size] = word.toString();
+            counts[size] = 1;
+            errors[size] = 0;
+            positions.put(words[size], size + 1);
+            siftUp(size++);
+        } else {
+            // Replace the least frequent word; its count becomes the error of the new word
+            positions.remove(words[0]);
+            words[0] = word.toString();
+            errors[0] = counts[0];
+            counts[0]++;
+            positions.put(words[0], 1);
+            siftDown(0);
+        }
+    }
+
+    // Combine with a sketch of another part of the stream. A word missing from a
+    // full sketch may have occurred up to that sketch's minimum count there, so
+    // the minimum is added to both its count and its error.
+    public void merge(SpaceSavingSketch other) {
+        long missingHere = size == capacity ? counts[0] : 0;
+        long missingThere = other.size == other.capacity ? other.counts[0] : 0;
+
+        Map<String, long[]> combined = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            combined.put(words[i], new long[] {counts[i] + missingThere, errors[i] + missingThere});
+        }
+        for (int i = 0; i < other.size; i++) {
+            long[] entry = combined.get(other.words[i]);
+            if (entry != null) {
+                entry[0] += other.counts[i] - missingThere;
+                entry[1] += other.errors[i] - missingThere;
+            } else {
+                combined.put(other.words[i], new long[] {other.counts[i] + missingHere, other.errors[i] + missingHere});
+            }
+        }
+
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(combined.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+        for (int i = 0; i < size; i++) {
+            positions.remove(words[i]);
+        }
+        size = 0;
+        for (Map.Entry<String, long[]> entry : entries) {
+            if (size == capacity) {
+                break;
+            }
+            words[size] = entry.getKey();
+            counts[size] = entry.getValue()[0];
+            errors[size] = entry.getValue()[1];
+            positions.put(words[size], size + 1);
+            siftUp(size++);
+        }
+        totalWords += other.totalWords;
+    }
+
+    // The k most frequent monitored words, most frequent first
+    public List<RankedWord> top(int k) {
+        List<RankedWord> ranking = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ranking.add(new RankedWord(words[i], counts[i], errors[i]));
+        }
+        ranking.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return Collections.unmodifiableList(ranking.subList(0, Math.min(k, ranking.size())));
+    }
+
+    // Upper bound for the overestimate of any reported count
+    public long getMaximumError() {
+        return size == capacity ? counts[0] : 0;
+    }
+
+    public long getTotalWords() {
+        return totalWords;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String word = words[i];
+        long count = counts[i];
+        long error = errors[i];
+        words[i] = words[j];
+        counts[i] = counts[j];
+        errors[i] = errors[j];
+        words[j] = word;
+        counts[j] = count;
+        errors[j] = error;
+        positions.put(words[i], i + 1);
+        positions.put(words[j], j + 1);
+    }
+}
@@ -0,0 +1,151 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// StopWordSet class to hold a fixed set of words to ignore while counting.
+// The words are compiled once into one char[] and an open-addressing table
+// that is kept at most half full, so checking a token is a hash plus (almost
+// always) a single comparison against the chars, however long the list is.
+// A set never changes after it is built and can be shared between threads.
+//
+// Stop word files have one or more words per line; text after '#' is a
+// comment. Lines are tokenized like the counted text, so "don't" adds the
+// tokens "don" and "t". Lists for some languages are bundled in the
+// stopwords directory and can be loaded by name with forLanguage().
+class StopWordSet {
+    // Languages with a bundled list in stopwords/<language>.txt
+    public static final List<String> LANGUAGES = Arrays.asList("english", "german", "spanish");
+
+    private final char[] chars; // All words, back to back
+    private final int[] starts; // Start of every word in chars, plus the end of the last one
+    private final int[] hashes; // Hash of every word
+    private final int[] table;  // Word index + 1 per slot, 0 for an empty slot
+    private final int mask;
+    private final int size;
+
+    private StopWordSet(List<String> words) {
+        int totalLength = 0;
+        for (String word : words) {
+            totalLength += word.length();
+        }
+        chars = new char[totalLength];
+        starts = new int[words.size() + 1];
+        hashes = new int[words.size()];
+
+        int capacity = 16;
+        while (capacity < words.size() * 2) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        mask = capacity - 1;
+
+        int count = 0;
+        int position = 0;
+        for (String word : words) {
+            int hash = WordFrequencyTable.hash(word);
+            if (find(word, hash) >= 0) {
+                continue; // Duplicate
+            }
+            word.getChars(0, word.length(), chars, position);
+            starts[count] = position;
+            position += word.length();
+            starts[count + 1] = position;
+            hashes[count] = hash;
+
+            int slot = spread(hash) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = ++count;
+        }
+        size = count;
+    }
+
+    // Set of the given (already lowercase) words
+    public static StopWordSet of(String... words) {
+        return new StopWordSet(Arrays.asList(words));
+    }
+
+    // Bundled list of one of LANGUAGES
+    public static StopWordSet forLanguage(String language) throws IOException {
+        InputStream in = StopWordSet.class.getResourceAsStream("/stopwords/" + language + ".txt");
+        if (in == null) {
+            throw new IOException("No stop word list for language: " + language);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    // List from a UTF-8 file
+    public static StopWordSet load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    private static StopWordSet read(Reader reader) throws IOException {
+        List<String> words = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            int comment = line.indexOf('#');
+            tokenizer.reset(line, 0, comment >= 0 ? comment : line.length());
+            while (tokenizer.next()) {
+                words.add(tokenizer.token().toString());
+            }
+        }
+        return new StopWordSet(words);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // Whether the (lowercase) word is in the set
+    public boolean contains(CharSequence word) {
+        return find(word, WordFrequencyTable.hash(word)) >= 0;
+    }
+
+    // Index of the word, or -1 if it is not in the set
+    private int find(CharSequence word, int hash) {
+        int slot = spread(hash) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            int index = entry - 1;
+            if (hashes[index] == hash && matches(index, word)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean matches(int index, CharSequence word) {
+        int start = starts[index];
+        int length = starts[index + 1] - start;
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Number of distinct words
+    public int size() {
+        return size;
+    }
+}
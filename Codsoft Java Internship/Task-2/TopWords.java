@@ -0,0 +1,73 @@
+import java.util.List;
+
+// TopWords class to rank the words of an exact frequency table. Only the k
+// best words are kept while scanning, in a bounded min-heap, so ranking costs
+// O(n log k) time and O(k) extra memory instead of sorting every word.
+class TopWords {
+    private TopWords() {
+    }
+
+    // The k most frequent words of the table, most frequent first
+    public static List<RankedWord> exact(WordFrequencyTable frequencies, int k) {
+        k = Math.min(k, frequencies.size());
+        int[] heap = new int[k]; // Table slots, least frequent at index 0
+        int size = 0;
+
+        for (int slot = 0; slot < frequencies.capacity(); slot++) {
+            if (frequencies.wordAt(slot) == null || k == 0) {
+                continue;
+            }
+            if (size < k) {
+                heap[size] = slot;
+                siftUp(frequencies, heap, size++);
+            } else if (frequencies.countAt(slot) > frequencies.countAt(heap[0])) {
+                heap[0] = slot;
+                siftDown(frequencies, heap, size, 0);
+            }
+        }
+
+        // Empty the heap from the least frequent word, filling the ranking from the back
+        RankedWord[] ranking = new RankedWord[size];
+        while (size > 0) {
+            int slot = heap[0];
+            ranking[size - 1] = new RankedWord(frequencies.wordAt(slot), frequencies.countAt(slot), 0);
+            heap[0] = heap[--size];
+            siftDown(frequencies, heap, size, 0);
+        }
+        return List.of(ranking);
+    }
+
+    private static void siftUp(WordFrequencyTable frequencies, int[] heap, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (frequencies.countAt(heap[parent]) <= frequencies.countAt(heap[position])) {
+                break;
+            }
+            int slot = heap[parent];
+            heap[parent] = heap[position];
+            heap[position] = slot;
+            position = parent;
+        }
+    }
+
+    private static void siftDown(WordFrequencyTable frequencies, int[] heap, int size, int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && frequencies.countAt(heap[left]) < frequencies.countAt(heap[smallest])) {
+                smallest = left;
+            }
+            if (right < size && frequencies.countAt(heap[right]) < frequencies.countAt(heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            int slot = heap[smallest];
+            heap[smallest] = heap[position];
+            heap[position] = slot;
+            position = smallest;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// WordCountOptions class to collect the settings of a counting run
+class WordCountOptions {
+    private StopWordSet stopWords;           // Null when no words are ignored
+    private boolean approximate;             // Track only the heavy hitters instead of every word
+    private double errorBound = 0.001;       // Maximum overestimate in approximate mode, as a fraction of all words
+    private int uniqueWordsPrecision = 14;   // HyperLogLog precision for unique words in approximate mode
+    private boolean countingPhrases;         // Count bigrams and trigrams too (exact mode only)
+    private long phraseMemoryLimit = 64L * 1024 * 1024; // Bytes for the phrase tables before rare phrases are pruned
+
+    public StopWordSet getStopWords() {
+        return stopWords;
+    }
+
+    public void setStopWords(StopWordSet stopWords) {
+        this.stopWords = stopWords;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    public double getErrorBound() {
+        return errorBound;
+    }
+
+    public void setErrorBound(double errorBound) {
+        if (errorBound <= 0 || errorBound >= 1) {
+            throw new IllegalArgumentException("Error bound must be between 0 and 1: " + errorBound);
+        }
+        this.errorBound = errorBound;
+    }
+
+    public int getUniqueWordsPrecision() {
+        return uniqueWordsPrecision;
+    }
+
+    public void setUniqueWordsPrecision(int uniqueWordsPrecision) {
+        if (uniqueWordsPrecision < HyperLogLog.MIN_PRECISION || uniqueWordsPrecision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + HyperLogLog.MIN_PRECISION
+                    + " and " + HyperLogLog.MAX_PRECISION + ": " + uniqueWordsPrecision);
+        }
+        this.uniqueWordsPrecision = uniqueWordsPrecision;
+    }
+
+    public boolean isCountingPhrases() {
+        return countingPhrases;
+    }
+
+    public void setCountingPhrases(boolean countingPhrases) {
+        this.countingPhrases = countingPhrases;
+    }
+
+    public long getPhraseMemoryLimit() {
+        return phraseMemoryLimit;
+    }
+
+    public void setPhraseMemoryLimit(long phraseMemoryLimit) {
+        if (phraseMemoryLimit < 1024) {
+            throw new IllegalArgumentException("Phrase memory limit must be at least 1 KB: " + phraseMemoryLimit);
+        }
+        this.phraseMemoryLimit = phraseMemoryLimit;
+    }
+}
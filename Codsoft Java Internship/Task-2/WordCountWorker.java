@@ -0,0 +1,56 @@
+import javax.swing.SwingWorker;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+// WordCountWorker class to count a text or a set of files on a background
+// thread, so the Swing event dispatch thread stays responsive. The progress
+// property goes from 0 to 100; cancel() stops the counters at their next
+// piece of work. Listen for the "state" property becoming DONE to show the result.
+class WordCountWorker extends SwingWorker<WordStatistics, Void> implements CountProgress {
+    private final WordCountOptions options;
+    private final String text;  // Null when counting files
+    private final File[] files; // Null when counting text
+    private final long totalUnits;
+    private final AtomicLong doneUnits = new AtomicLong();
+
+    public WordCountWorker(WordCountOptions options, String text) {
+        this.options = options;
+        this.text = text;
+        this.files = null;
+        this.totalUnits = text.length();
+    }
+
+    public WordCountWorker(WordCountOptions options, File[] files) {
+        this.options = options;
+        this.text = null;
+        this.files = files;
+        long bytes = 0;
+        for (File file : files) {
+            bytes += file.length();
+        }
+        this.totalUnits = bytes;
+    }
+
+    @Override
+    protected WordStatistics doInBackground() throws Exception {
+        if (text != null) {
+            ParallelWordCounter counter = new ParallelWordCounter(options);
+            counter.setProgress(this);
+            return counter.count(text);
+        }
+
+        WordStatistics statistics = new WordStatistics(options);
+        MappedFileWordCounter counter = new MappedFileWordCounter(statistics);
+        counter.setProgress(this);
+        for (File file : files) {
+            counter.count(file);
+        }
+        return statistics;
+    }
+
+    @Override
+    public void advance(long units) {
+        long done = doneUnits.addAndGet(units);
+        setProgress((int) Math.min(100, done * 100 / Math.max(1, totalUnits)));
+    }
+}
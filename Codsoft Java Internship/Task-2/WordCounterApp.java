@@ -1,22 +1,47 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.text.AbstractDocument;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class WordCounterApp extends JFrame {
 
     private JTextArea inputTextArea;
     private JButton countButton;
+    private JButton countFilesButton;
+    private JButton cancelButton;
+    private JProgressBar progressBar;
     private JLabel resultLabel;
     private JCheckBox ignoreCommonWordsCheckbox;
+    private JCheckBox liveCountCheckbox;
+    private JComboBox<String> rankingModeBox;
+    private JSpinner topWordsSpinner;
+    private JSpinner errorBoundSpinner;
+    private JSpinner precisionSpinner;
+    private JCheckBox countPhrasesCheckbox;
 
-    private List<String> commonWords = Arrays.asList(
+    private LiveWordCounter liveCounter; // Null while live counting is off
+    private WordCountWorker countWorker; // Null while no count is running
+
+    // Ranking modes offered by rankingModeBox, in order
+    private static final int RANK_ALL_WORDS = 0;
+    private static final int RANK_TOP_EXACT = 1;
+    private static final int RANK_TOP_APPROXIMATE = 2;
+
+    static final StopWordSet COMMON_WORDS = StopWordSet.of(
             "the", "and", "a", "an", "in", "on", "is", "are", "it", "of", "to"
     );
 
+    private JComboBox<String> stopWordsBox;
+    private StopWordSet stopWords = COMMON_WORDS; // Words ignored when ignoreCommonWordsCheckbox is checked
+
     public WordCounterApp() {
         setTitle("Word Counter");
         setSize(600, 500);
@@ -32,8 +57,17 @@ public class WordCounterApp extends JFrame {
         JTextArea instructionLabel = new JTextArea("Instructions:\n\n"
                 + "1. Enter the text you want to count words for in the provided text area.\n"
                 + "2. Click on the 'Count Words' button to get the total count of words.\n"
-                + "3. Check the 'Ignore Common Words' option to exclude common words from counting.\n"
-                + "4. The application will display the word count and additional statistics (unique words and frequency).\n");
+                + "3. Check the 'Ignore Common Words' option to exclude common words from counting. Next to it, pick a\n"
+                + "    longer stop word list for a language or load your own list (one or more words per line).\n"
+                + "4. The application will display the word count and additional statistics (unique words and frequency).\n"
+                + "5. Click on the 'Count File(s)' button to count words in large UTF-8 text files without pasting them.\n"
+                + "6. Choose 'Top Words' to list only the most frequent words; the approximate mode uses fixed memory\n"
+                + "    and may overcount by at most the chosen error bound (a percentage of all words).\n"
+                + "    It also estimates the number of unique words; a higher precision uses more memory but is more accurate.\n"
+                + "7. Check the 'Live Count' option to update the word count while you type.\n"
+                + "8. Large counts run in the background; click on the 'Cancel' button to stop them.\n"
+                + "9. Check the 'Count Phrases' option to also list the most frequent two- and three-word phrases (exact modes only).\n"
+                + "10. Click on the 'Search Index' button to find a word in an index built with the --index command line option.\n");
         instructionLabel.setEditable(false);
         instructionLabel.setBackground(this.getBackground());
         contentPane.add(instructionLabel, BorderLayout.NORTH);
@@ -53,10 +87,95 @@ public class WordCounterApp extends JFrame {
         });
         buttonPanel.add(countButton);
 
+        countFilesButton = new JButton("Count File(s)");
+        countFilesButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                countFiles();
+            }
+        });
+        buttonPanel.add(countFilesButton);
+
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (countWorker != null) {
+                    countWorker.cancel(true);
+                }
+            }
+        });
+        buttonPanel.add(cancelButton);
+
+        JButton searchIndexButton = new JButton("Search Index");
+        searchIndexButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                searchIndex();
+            }
+        });
+        buttonPanel.add(searchIndexButton);
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        buttonPanel.add(progressBar);
+
         ignoreCommonWordsCheckbox = new JCheckBox("Ignore Common Words", true);
+        ignoreCommonWordsCheckbox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                restartLiveCount();
+            }
+        });
         buttonPanel.add(ignoreCommonWordsCheckbox);
 
-        contentPane.add(buttonPanel, BorderLayout.SOUTH);
+        stopWordsBox = new JComboBox<>(new String[] {"Common Words", "English", "German", "Spanish", "From File..."});
+        stopWordsBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                chooseStopWords();
+            }
+        });
+        buttonPanel.add(stopWordsBox);
+
+        liveCountCheckbox = new JCheckBox("Live Count", false);
+        liveCountCheckbox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (liveCountCheckbox.isSelected()) {
+                    startLiveCount();
+                } else {
+                    stopLiveCount();
+                }
+            }
+        });
+        buttonPanel.add(liveCountCheckbox);
+
+        JPanel optionsPanel = new JPanel();
+        optionsPanel.add(new JLabel("Show:"));
+        rankingModeBox = new JComboBox<>(new String[] {"All Words", "Top Words (exact)", "Top Words (approximate)"});
+        optionsPanel.add(rankingModeBox);
+
+        optionsPanel.add(new JLabel("Top:"));
+        topWordsSpinner = new JSpinner(new SpinnerNumberModel(20, 1, 1000000, 10));
+        optionsPanel.add(topWordsSpinner);
+
+        optionsPanel.add(new JLabel("Error Bound (%):"));
+        errorBoundSpinner = new JSpinner(new SpinnerNumberModel(0.1, 0.01, 10.0, 0.05));
+        optionsPanel.add(errorBoundSpinner);
+
+        optionsPanel.add(new JLabel("Precision:"));
+        precisionSpinner = new JSpinner(new SpinnerNumberModel(14, HyperLogLog.MIN_PRECISION, HyperLogLog.MAX_PRECISION, 1));
+        optionsPanel.add(precisionSpinner);
+
+        countPhrasesCheckbox = new JCheckBox("Count Phrases", false);
+        optionsPanel.add(countPhrasesCheckbox);
+
+        JPanel southPanel = new JPanel(new GridLayout(2, 1));
+        southPanel.add(buttonPanel);
+        southPanel.add(optionsPanel);
+        contentPane.add(southPanel, BorderLayout.SOUTH);
 
         resultLabel = new JLabel("Word Count: ");
         resultLabel.setBorder(new EmptyBorder(0, 10, 0, 0)); // Add space at the left of the result label
@@ -71,54 +190,200 @@ public class WordCounterApp extends JFrame {
             return;
         }
 
-        // Split the input text into an array of words using space or punctuation as delimiters
-        String[] words = inputText.split("\\s+|\\p{Punct}");
+        // Count the words using space or punctuation as delimiters, in parallel and off the event dispatch thread
+        runCount(new WordCountWorker(createOptions(), inputText));
+    }
 
-        // Initialize a counter variable to keep track of the number of words
-        int wordCount = 0;
+    // Method to count the words of files picked by the user, streaming them from disk
+    private void countFiles() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setMultiSelectionEnabled(true);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-        // Map to store word frequency
-        Map<String, Integer> wordFrequencyMap = new HashMap<>();
+        runCount(new WordCountWorker(createOptions(), fileChooser.getSelectedFiles()));
+    }
 
-        // Iterate through the array of words and increment the counter for each word encountered
-        for (String word : words) {
-            word = word.toLowerCase(); // Convert to lowercase for case-insensitive comparison
+    // Method to run a count in the background, following its progress until it is done
+    private void runCount(final WordCountWorker worker) {
+        countWorker = worker;
+        countButton.setEnabled(false);
+        countFilesButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
 
-            if (!word.isEmpty()) {
-                if (ignoreCommonWordsCheckbox.isSelected() && commonWords.contains(word)) {
-                    continue; // Ignore common words
+        worker.addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                if ("progress".equals(evt.getPropertyName())) {
+                    progressBar.setValue((Integer) evt.getNewValue());
+                } else if ("state".equals(evt.getPropertyName()) && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                    countDone(worker);
                 }
+            }
+        });
+        worker.execute();
+    }
 
-                wordCount++;
+    private void countDone(WordCountWorker worker) {
+        countWorker = null;
+        countButton.setEnabled(true);
+        countFilesButton.setEnabled(true);
+        cancelButton.setEnabled(false);
+
+        if (worker.isCancelled()) {
+            resultLabel.setText("Counting cancelled");
+            return;
+        }
+        try {
+            showStatistics(worker.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                JOptionPane.showMessageDialog(this, "Could not read file:\n" + cause.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Counting failed: " + cause, "Counting Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    // Method to switch to the stop word list picked in stopWordsBox
+    private void chooseStopWords() {
+        int choice = stopWordsBox.getSelectedIndex();
+        try {
+            if (choice == 0) {
+                stopWords = COMMON_WORDS;
+            } else if (choice <= StopWordSet.LANGUAGES.size()) {
+                stopWords = StopWordSet.forLanguage(StopWordSet.LANGUAGES.get(choice - 1));
+            } else {
+                JFileChooser fileChooser = new JFileChooser();
+                if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                    stopWordsBox.setSelectedIndex(0);
+                    return;
+                }
+                stopWords = StopWordSet.load(fileChooser.getSelectedFile().toPath());
+            }
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not read stop words:\n" + ex.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
+            stopWordsBox.setSelectedIndex(0);
+            return;
+        }
+        restartLiveCount();
+    }
 
-                // Update word frequency
-                int frequency = wordFrequencyMap.getOrDefault(word, 0);
-                wordFrequencyMap.put(word, frequency + 1);
+    // Method to start counting the words of the text area on every edit
+    private void startLiveCount() {
+        WordCountOptions options = new WordCountOptions();
+        if (ignoreCommonWordsCheckbox.isSelected()) {
+            options.setStopWords(stopWords);
+        }
+        liveCounter = new LiveWordCounter((AbstractDocument) inputTextArea.getDocument(), options, new Runnable() {
+            @Override
+            public void run() {
+                WordStatistics statistics = liveCounter.getStatistics();
+                resultLabel.setText("<html>Word Count: " + statistics.getWordCount()
+                        + "<br>Unique Words: " + statistics.getUniqueWordCount() + "</html>");
             }
+        });
+        liveCounter.start();
+    }
+
+    private void stopLiveCount() {
+        liveCounter.stop();
+        liveCounter = null;
+    }
+
+    // Method to recount from scratch after a counting option changed
+    private void restartLiveCount() {
+        if (liveCounter != null) {
+            stopLiveCount();
+            startLiveCount();
+        }
+    }
+
+    // Method to collect the counting options chosen in the GUI
+    private WordCountOptions createOptions() {
+        WordCountOptions options = new WordCountOptions();
+        if (ignoreCommonWordsCheckbox.isSelected()) {
+            options.setStopWords(stopWords);
+        }
+        if (rankingModeBox.getSelectedIndex() == RANK_TOP_APPROXIMATE) {
+            options.setApproximate(true);
+            options.setErrorBound(((Number) errorBoundSpinner.getValue()).doubleValue() / 100);
+            options.setUniqueWordsPrecision(((Number) precisionSpinner.getValue()).intValue());
+        } else if (countPhrasesCheckbox.isSelected()) {
+            options.setCountingPhrases(true);
         }
+        return options;
+    }
 
+    // Method to show the word count and additional statistics of a counting run
+    private void showStatistics(WordStatistics result) {
         // Display the total count of words to the user
-        resultLabel.setText("Word Count: " + wordCount);
+        resultLabel.setText("Word Count: " + result.getWordCount());
 
         // Display additional statistics if available
-        if (!wordFrequencyMap.isEmpty()) {
-            StringBuilder statistics = new StringBuilder("<html>Additional Statistics:<br>");
-            statistics.append("Number of Unique Words: ").append(wordFrequencyMap.size()).append("<br>");
+        if (result.getWordCount() > 0) {
+            // Words by frequency in descending order, only the top ones if requested
+            int k = rankingModeBox.getSelectedIndex() == RANK_ALL_WORDS
+                    ? Integer.MAX_VALUE : ((Number) topWordsSpinner.getValue()).intValue();
+            new WordStatisticsDialog(this, result, k).setVisible(true);
+        }
+    }
 
-            // Sort words by frequency in descending order
-            List<Map.Entry<String, Integer>> sortedEntries = new ArrayList<>(wordFrequencyMap.entrySet());
-            sortedEntries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+    // Method to look up a word in an index directory and list the documents it occurs in
+    private void searchIndex() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        fileChooser.setDialogTitle("Choose Index Directory");
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String input = JOptionPane.showInputDialog(this, "Word to search for:", "Search Index", JOptionPane.QUESTION_MESSAGE);
+        if (input == null) {
+            return;
+        }
+        WordTokenizer tokenizer = new WordTokenizer().reset(input);
+        if (!tokenizer.next()) {
+            JOptionPane.showMessageDialog(this, "Please enter a word to search for.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String word = tokenizer.token().toString(); // Lowercased like the indexed words
 
-            for (Map.Entry<String, Integer> entry : sortedEntries) {
-                statistics.append("Word '").append(entry.getKey()).append("': ").append(entry.getValue()).append(" occurrences<br>");
-            }
-            statistics.append("</html>");
+        List<IndexHit> hits;
+        int documentCount;
+        try (InvertedIndex index = new InvertedIndex(fileChooser.getSelectedFile().toPath())) {
+            hits = index.search(word);
+            documentCount = index.getDocumentCount();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not read index:\n" + ex.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-            JOptionPane.showMessageDialog(this, statistics.toString(), "Word Statistics", JOptionPane.INFORMATION_MESSAGE);
+        // Documents with the most occurrences first
+        List<RankedWord> ranking = new ArrayList<>(hits.size());
+        for (IndexHit hit : hits) {
+            ranking.add(new RankedWord(hit.getDocument(), hit.getFrequency(), 0));
         }
+        ranking.sort(new Comparator<RankedWord>() {
+            @Override
+            public int compare(RankedWord a, RankedWord b) {
+                return Long.compare(b.getCount(), a.getCount());
+            }
+        });
+        String summary = "'" + word + "' occurs in " + hits.size() + " of " + documentCount + " documents";
+        new WordStatisticsDialog(this, "Search Index", summary, ranking, "Document").setVisible(true);
     }
 
     public static void main(String[] args) {
+        // With arguments, count files on the command line without opening the window
+        if (args.length > 0) {
+            System.exit(WordCounterCli.run(args));
+        }
+
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
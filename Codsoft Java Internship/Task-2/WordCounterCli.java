@@ -0,0 +1,503 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// WordCounterCli class to count words without the GUI, for batch jobs and
+// pipelines. Files, directories (walked recursively) and glob patterns are
+// counted concurrently on a fixed-size worker pool; per-file and aggregate
+// statistics are written as CSV or JSON together with the throughput.
+// The counted files can also be added to an on-disk inverted index, which
+// --query searches without reading the files again.
+//
+// Usage: java WordCounterApp [options] <file | directory | glob>...
+//        java WordCounterApp --index DIR --query WORD
+class WordCounterCli {
+    private static final String USAGE = "Usage: java WordCounterApp [options] <file | directory | glob>...\n"
+            + "       java WordCounterApp --index DIR --query WORD [--format csv|json] [--output FILE]\n"
+            + "Options:\n"
+            + "  --threads N          number of files counted at the same time (default: number of cores)\n"
+            + "  --format csv|json    output format (default: csv)\n"
+            + "  --output FILE        write the report to FILE instead of standard output\n"
+            + "  --top N              number of most frequent words in the aggregate report (default: 10)\n"
+            + "  --keep-common        count common words too\n"
+            + "  --stopwords LIST     words to ignore instead of the common words: english, german, spanish or a file\n"
+            + "  --approximate        track only the top words and estimate unique words, in fixed memory\n"
+            + "  --error-bound E      maximum overcount in approximate mode, as a fraction of all words (default: 0.001)\n"
+            + "  --precision P        HyperLogLog precision for unique words in approximate mode (default: 14)\n"
+            + "  --phrases            count two- and three-word phrases too (exact mode only)\n"
+            + "  --phrase-memory MB   memory for the phrase tables before rare phrases are pruned (default: 64)\n"
+            + "  --index DIR          also add the counted files to the inverted index in DIR\n"
+            + "  --query WORD         list the documents of the index in --index DIR that contain WORD\n";
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean json;
+    private String output;
+    private int topWords = 10;
+    private final WordCountOptions options = new WordCountOptions();
+    private final List<String> inputs = new ArrayList<>();
+    private String indexDirectory;
+    private String query;
+
+    // Result of counting one file; the statistics are merged into the aggregate and dropped
+    private static class FileResult {
+        Path path;
+        long bytes;
+        long tokens; // All words read, including ignored ones
+        long nanos;
+        WordStatistics statistics;
+        DocumentPostings postings; // Null unless the file is indexed
+    }
+
+    // Summary of one file kept for the report
+    private static class FileSummary {
+        String path;
+        long bytes;
+        long words;
+        long uniqueWords;
+        double seconds;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    // Run the command line and return the process exit code
+    public static int run(String[] args) {
+        WordCounterCli cli = new WordCounterCli();
+        try {
+            cli.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        try {
+            if (cli.query != null) {
+                cli.query();
+            } else {
+                cli.count();
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        options.setStopWords(WordCounterApp.COMMON_WORDS);
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--threads":
+                    threads = Integer.parseInt(value(args, ++i, arg));
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("--threads must be at least 1");
+                    }
+                    break;
+                case "--format":
+                    String format = value(args, ++i, arg);
+                    if (!format.equals("csv") && !format.equals("json")) {
+                        throw new IllegalArgumentException("Unknown format: " + format);
+                    }
+                    json = format.equals("json");
+                    break;
+                case "--output":
+                    output = value(args, ++i, arg);
+                    break;
+                case "--top":
+                    topWords = Integer.parseInt(value(args, ++i, arg));
+                    if (topWords < 1) {
+                        throw new IllegalArgumentException("--top must be at least 1");
+                    }
+                    break;
+                case "--keep-common":
+                    options.setStopWords(null);
+                    break;
+                case "--stopwords":
+                    String list = value(args, ++i, arg);
+                    try {
+                        options.setStopWords(StopWordSet.LANGUAGES.contains(list)
+                                ? StopWordSet.forLanguage(list) : StopWordSet.load(Paths.get(list)));
+                    } catch (IOException e) {
+                        throw new IllegalArgumentException("Cannot read stop words: " + e.getMessage());
+                    }
+                    break;
+                case "--approximate":
+                    options.setApproximate(true);
+                    break;
+                case "--error-bound":
+                    options.setErrorBound(Double.parseDouble(value(args, ++i, arg)));
+                    break;
+                case "--precision":
+                    options.setUniqueWordsPrecision(Integer.parseInt(value(args, ++i, arg)));
+                    break;
+                case "--phrases":
+                    options.setCountingPhrases(true);
+                    break;
+                case "--phrase-memory":
+                    options.setPhraseMemoryLimit(Long.parseLong(value(args, ++i, arg)) * 1024 * 1024);
+                    break;
+                case "--index":
+                    indexDirectory = value(args, ++i, arg);
+                    break;
+                case "--query":
+                    query = value(args, ++i, arg);
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    inputs.add(arg);
+            }
+        }
+        if (query != null) {
+            if (indexDirectory == null) {
+                throw new IllegalArgumentException("--query needs --index DIR");
+            }
+            if (!inputs.isEmpty()) {
+                throw new IllegalArgumentException("--query does not take files");
+            }
+            return;
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No files given");
+        }
+        if (options.isApproximate() && options.isCountingPhrases()) {
+            throw new IllegalArgumentException("--phrases cannot be combined with --approximate");
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private void count() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String input : inputs) {
+            collectFiles(input, files);
+        }
+
+        long start = System.nanoTime();
+        WordStatistics aggregate = new WordStatistics(options);
+        List<FileSummary> summaries = new ArrayList<>(files.size());
+        long totalBytes = 0;
+        long totalTokens = 0;
+
+        // Workers only collect postings; segments are written here, on one thread. If a file
+        // fails, the files counted before it are still written to the index.
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (InvertedIndexWriter indexWriter = indexDirectory != null ? new InvertedIndexWriter(Paths.get(indexDirectory)) : null) {
+            CompletionService<FileResult> completion = new ExecutorCompletionService<>(pool);
+            for (Path file : files) {
+                completion.submit(() -> countFile(file));
+            }
+            // Merge results as they complete, so finished files do not pile up in memory
+            for (int i = 0; i < files.size(); i++) {
+                FileResult result = completion.take().get();
+                summaries.add(summarize(result));
+                aggregate.merge(result.statistics);
+                if (indexWriter != null) {
+                    // By real path, so a file is one document whichever path it was given by
+                    indexWriter.addDocument(result.path.toRealPath().toString(), result.postings);
+                }
+                totalBytes += result.bytes;
+                totalTokens += result.tokens;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        summaries.sort(Comparator.comparing(summary -> summary.path));
+
+        try (PrintWriter writer = openReport()) {
+            if (json) {
+                writeJson(writer, summaries, aggregate, totalBytes, totalTokens, seconds);
+            } else {
+                writeCsv(writer, summaries, aggregate, totalBytes, seconds);
+            }
+        }
+
+        System.err.printf(Locale.ROOT, "Counted %d files, %d bytes, %d words in %.3f s: %.1f MB/s, %.0f tokens/s%n",
+                files.size(), totalBytes, aggregate.getWordCount(), seconds,
+                megabytesPerSecond(totalBytes, seconds), perSecond(totalTokens, seconds));
+    }
+
+    // Writer for the report: the --output file, or standard output, which stays open when the writer is closed
+    private PrintWriter openReport() throws IOException {
+        if (output != null) {
+            return new PrintWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8));
+        }
+        return new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                flush();
+            }
+        };
+    }
+
+    private FileResult countFile(Path file) throws IOException {
+        FileResult result = new FileResult();
+        result.path = file;
+        result.bytes = Files.size(file);
+        result.statistics = new WordStatistics(options);
+        WordSink sink = result.statistics;
+        if (indexDirectory != null) {
+            // Index every word, including the ignored common ones, so any word can be searched
+            result.postings = new DocumentPostings();
+            sink = WordSink.both(result.statistics, result.postings);
+        }
+        long start = System.nanoTime();
+        MappedFileWordCounter counter = new MappedFileWordCounter(sink);
+        counter.count(file.toFile());
+        result.nanos = System.nanoTime() - start;
+        result.tokens = counter.getTokenCount();
+        return result;
+    }
+
+    private static FileSummary summarize(FileResult result) {
+        FileSummary summary = new FileSummary();
+        summary.path = result.path.toString();
+        summary.bytes = result.bytes;
+        summary.words = result.statistics.getWordCount();
+        summary.uniqueWords = result.statistics.getUniqueWordCount();
+        summary.seconds = result.nanos / 1e9;
+        return summary;
+    }
+
+    // Search the index for one word and list the documents it occurs in
+    private void query() throws IOException {
+        WordTokenizer tokenizer = new WordTokenizer().reset(query);
+        if (!tokenizer.next()) {
+            throw new IOException("Not a word: " + query);
+        }
+        String word = tokenizer.token().toString(); // Lowercased like the indexed words
+        if (tokenizer.next()) {
+            throw new IOException("--query takes a single word: " + query);
+        }
+
+        long start = System.nanoTime();
+        List<IndexHit> hits;
+        int documentCount;
+        try (InvertedIndex index = new InvertedIndex(Paths.get(indexDirectory))) {
+            hits = index.search(word);
+            documentCount = index.getDocumentCount();
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        try (PrintWriter writer = openReport()) {
+            if (json) {
+                writer.println("{");
+                writer.printf(Locale.ROOT, "  \"word\": %s,%n", json(word));
+                writer.println("  \"documents\": [");
+                for (int i = 0; i < hits.size(); i++) {
+                    IndexHit hit = hits.get(i);
+                    writer.printf(Locale.ROOT, "    {\"document\": %s, \"occurrences\": %d, \"positions\": [%s]}%s%n",
+                            json(hit.getDocument()), hit.getFrequency(), joinPositions(hit, ", "),
+                            i + 1 < hits.size() ? "," : "");
+                }
+                writer.println("  ]");
+                writer.println("}");
+            } else {
+                writer.println("document,occurrences,positions");
+                for (IndexHit hit : hits) {
+                    writer.printf(Locale.ROOT, "%s,%d,%s%n", csv(hit.getDocument()), hit.getFrequency(), joinPositions(hit, " "));
+                }
+            }
+        }
+
+        System.err.printf(Locale.ROOT, "Found \"%s\" in %d of %d documents in %.3f ms%n", word, hits.size(), documentCount, millis);
+    }
+
+    private static String joinPositions(IndexHit hit, String separator) {
+        StringBuilder joined = new StringBuilder();
+        for (int position : hit.getPositions()) {
+            if (joined.length() > 0) {
+                joined.append(separator);
+            }
+            joined.append(position);
+        }
+        return joined.toString();
+    }
+
+    // Add the files named by one input: a file, a directory to walk, or a glob pattern
+    static void collectFiles(String input, List<Path> files) throws IOException {
+        Path path = Paths.get(input);
+        if (Files.isRegularFile(path)) {
+            files.add(path);
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            walk(path, null, files);
+            return;
+        }
+
+        // Glob: walk from the deepest directory without wildcards and match the full pattern
+        String pattern = input.replace('\\', '/');
+        int wildcard = indexOfWildcard(pattern);
+        if (wildcard < 0) {
+            throw new IOException("No such file or directory: " + input);
+        }
+        int slash = pattern.lastIndexOf('/', wildcard);
+        Path base = Paths.get(slash < 0 ? "." : (slash == 0 ? "/" : pattern.substring(0, slash)));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + (slash < 0 ? "./" + pattern : pattern));
+        if (Files.isDirectory(base)) {
+            walk(base, matcher, files);
+        }
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void walk(Path directory, PathMatcher matcher, List<Path> files) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && (matcher == null || matcher.matches(file))) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    // Rate per second; 0 instead of Infinity for a time too short to measure
+    private static double perSecond(double amount, double seconds) {
+        return seconds > 0 ? amount / seconds : 0;
+    }
+
+    private static double megabytesPerSecond(long bytes, double seconds) {
+        return perSecond(bytes / (1024.0 * 1024.0), seconds);
+    }
+
+    private void writeCsv(PrintWriter writer, List<FileSummary> summaries, WordStatistics aggregate, long totalBytes, double seconds) {
+        writer.println("file,bytes,words,unique_words,seconds,mb_per_second");
+        for (FileSummary summary : summaries) {
+            writer.printf(Locale.ROOT, "%s,%d,%d,%d,%.6f,%.3f%n", csv(summary.path), summary.bytes, summary.words,
+                    summary.uniqueWords, summary.seconds, megabytesPerSecond(summary.bytes, summary.seconds));
+        }
+        writer.printf(Locale.ROOT, "%s,%d,%d,%d,%.6f,%.3f%n", "TOTAL", totalBytes, aggregate.getWordCount(),
+                aggregate.getUniqueWordCount(), seconds, megabytesPerSecond(totalBytes, seconds));
+
+        writer.println();
+        writer.println("rank,word,occurrences,max_overcount");
+        int rank = 1;
+        for (RankedWord entry : aggregate.topWords(topWords)) {
+            writer.printf(Locale.ROOT, "%d,%s,%d,%d%n", rank++, csv(entry.getWord()), entry.getCount(), entry.getError());
+        }
+
+        if (aggregate.isCountingPhrases()) {
+            writeCsvPhrases(writer, "bigram", aggregate.topBigrams(topWords), aggregate.getPhraseMaximumUndercount());
+            writeCsvPhrases(writer, "trigram", aggregate.topTrigrams(topWords), aggregate.getPhraseMaximumUndercount());
+        }
+    }
+
+    private static void writeCsvPhrases(PrintWriter writer, String column, List<RankedWord> ranking, long maxUndercount) {
+        writer.println();
+        writer.println("rank," + column + ",occurrences,max_undercount");
+        int rank = 1;
+        for (RankedWord entry : ranking) {
+            writer.printf(Locale.ROOT, "%d,%s,%d,%d%n", rank++, csv(entry.getWord()), entry.getCount(), maxUndercount);
+        }
+    }
+
+    private void writeJson(PrintWriter writer, List<FileSummary> summaries, WordStatistics aggregate, long totalBytes,
+            long totalTokens, double seconds) {
+        writer.println("{");
+        writer.println("  \"files\": [");
+        for (int i = 0; i < summaries.size(); i++) {
+            FileSummary summary = summaries.get(i);
+            writer.printf(Locale.ROOT, "    {\"file\": %s, \"bytes\": %d, \"words\": %d, \"uniqueWords\": %d, \"seconds\": %.6f}%s%n",
+                    json(summary.path), summary.bytes, summary.words, summary.uniqueWords, summary.seconds,
+                    i + 1 < summaries.size() ? "," : "");
+        }
+        writer.println("  ],");
+        writer.printf(Locale.ROOT, "  \"aggregate\": {\"files\": %d, \"bytes\": %d, \"words\": %d, \"uniqueWords\": %d, \"approximate\": %b},%n",
+                summaries.size(), totalBytes, aggregate.getWordCount(), aggregate.getUniqueWordCount(), aggregate.isApproximate());
+        writer.println("  \"topWords\": [");
+        List<RankedWord> ranking = aggregate.topWords(topWords);
+        for (int i = 0; i < ranking.size(); i++) {
+            RankedWord entry = ranking.get(i);
+            writer.printf(Locale.ROOT, "    {\"word\": %s, \"occurrences\": %d, \"maxOvercount\": %d}%s%n",
+                    json(entry.getWord()), entry.getCount(), entry.getError(), i + 1 < ranking.size() ? "," : "");
+        }
+        writer.println("  ],");
+        if (aggregate.isCountingPhrases()) {
+            writeJsonPhrases(writer, "topBigrams", aggregate.topBigrams(topWords));
+            writeJsonPhrases(writer, "topTrigrams", aggregate.topTrigrams(topWords));
+            writer.printf(Locale.ROOT, "  \"phraseMaxUndercount\": %d,%n", aggregate.getPhraseMaximumUndercount());
+        }
+        writer.printf(Locale.ROOT, "  \"throughput\": {\"seconds\": %.6f, \"mbPerSecond\": %.3f, \"tokensPerSecond\": %.1f}%n",
+                seconds, megabytesPerSecond(totalBytes, seconds), perSecond(totalTokens, seconds));
+        writer.println("}");
+    }
+
+    private static void writeJsonPhrases(PrintWriter writer, String name, List<RankedWord> ranking) {
+        writer.println("  \"" + name + "\": [");
+        for (int i = 0; i < ranking.size(); i++) {
+            RankedWord entry = ranking.get(i);
+            writer.printf(Locale.ROOT, "    {\"phrase\": %s, \"occurrences\": %d}%s%n",
+                    json(entry.getWord()), entry.getCount(), i + 1 < ranking.size() ? "," : "");
+        }
+        writer.println("  ],");
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
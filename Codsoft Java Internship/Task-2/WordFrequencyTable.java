@@ -0,0 +1,267 @@
+// WordFrequencyTable class to count word occurrences without boxing.
+// Words live in an open-addressing (linear probing) table next to their
+// hash codes, and the counts are kept in a plain int[]. Lookups hash and
+// compare any CharSequence, so counting a word that is already in the table
+// does not create a String; only the first occurrence of a word is copied.
+// A table created with ids also gives every word a small integer id on first
+// insertion, so other tables can refer to words by id instead of by String.
+// Ids are never reused, so such a table keeps every word it ever held; tables
+// that remove words to stay small (like SpaceSavingSketch's) have no ids.
+class WordFrequencyTable {
+    private static final int INITIAL_CAPACITY = 64; // Must be a power of two
+
+    private String[] words;
+    private int[] hashes;
+    private int[] counts;
+    private int[] ids; // Null in a table without ids
+    private int size;
+    private int mask;
+
+    private String[] wordsById; // Null in a table without ids
+    private int nextId;
+
+    public WordFrequencyTable() {
+        this(INITIAL_CAPACITY, false);
+    }
+
+    public WordFrequencyTable(boolean withIds) {
+        this(INITIAL_CAPACITY, withIds);
+    }
+
+    public WordFrequencyTable(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    public WordFrequencyTable(int expectedSize, boolean withIds) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        if (withIds) {
+            wordsById = new String[INITIAL_CAPACITY];
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        words = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        if (wordsById != null) {
+            ids = new int[capacity];
+        }
+        mask = capacity - 1;
+    }
+
+    public boolean hasIds() {
+        return ids != null;
+    }
+
+    // Same hash as String.hashCode(), so Strings and other char sequences agree
+    static int hash(CharSequence word) {
+        int h = 0;
+        for (int i = 0; i < word.length(); i++) {
+            h = 31 * h + word.charAt(i);
+        }
+        return h;
+    }
+
+    // Spread the high bits, since the table index only uses the low bits
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // Add delta occurrences of the word and return its new count
+    public int add(CharSequence word, int delta) {
+        int slot = add(word, hash(word), delta); // May grow the arrays, so look them up afterwards
+        return counts[slot];
+    }
+
+    // Add delta occurrences of the word and return its id
+    public int addAndGetId(CharSequence word, int delta) {
+        if (ids == null) {
+            throw new IllegalStateException("This table does not assign ids");
+        }
+        int slot = add(word, hash(word), delta);
+        return ids[slot];
+    }
+
+    // Add delta occurrences of the word and return its slot
+    private int add(CharSequence word, int hash, int delta) {
+        int slot = spread(hash) & mask;
+        String key;
+        while ((key = words[slot]) != null) {
+            if (hashes[slot] == hash && key.contentEquals(word)) {
+                counts[slot] += delta;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        words[slot] = word.toString();
+        hashes[slot] = hash;
+        counts[slot] = delta;
+        if (ids != null) {
+            ids[slot] = assignId(words[slot]);
+        }
+        if (++size > (mask + 1) * 3 / 4) {
+            grow();
+            return find(word, hash);
+        }
+        return slot;
+    }
+
+    private int assignId(String word) {
+        if (nextId == wordsById.length) {
+            String[] larger = new String[wordsById.length * 2];
+            System.arraycopy(wordsById, 0, larger, 0, nextId);
+            wordsById = larger;
+        }
+        wordsById[nextId] = word;
+        return nextId++;
+    }
+
+    // Set the count of the word, adding the word if needed
+    public void put(CharSequence word, int count) {
+        int hash = hash(word);
+        int slot = find(word, hash);
+        if (slot >= 0) {
+            counts[slot] = count;
+        } else {
+            add(word, hash, count);
+        }
+    }
+
+    // Remove the word and return the count it had, 0 if it was not in the table
+    public int remove(CharSequence word) {
+        int slot = find(word, hash(word));
+        if (slot < 0) {
+            return 0;
+        }
+        int count = counts[slot];
+        delete(slot);
+        return count;
+    }
+
+    // Slot of the word, or -1 if it is not in the table
+    private int find(CharSequence word, int hash) {
+        int slot = spread(hash) & mask;
+        String key;
+        while ((key = words[slot]) != null) {
+            if (hashes[slot] == hash && key.contentEquals(word)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Empty the slot and shift later entries of the same probe run back,
+    // so lookups never need tombstones
+    private void delete(int slot) {
+        size--;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (words[next] != null) {
+            int ideal = spread(hashes[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                words[hole] = words[next];
+                hashes[hole] = hashes[next];
+                counts[hole] = counts[next];
+                if (ids != null) {
+                    ids[hole] = ids[next];
+                }
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        words[hole] = null;
+        hashes[hole] = 0;
+        counts[hole] = 0;
+        if (ids != null) {
+            ids[hole] = 0;
+        }
+    }
+
+    // Number of occurrences of the word, 0 if it was never added
+    public int get(CharSequence word) {
+        int slot = find(word, hash(word));
+        return slot >= 0 ? counts[slot] : 0;
+    }
+
+    // Id of the word, or -1 if it is not in the table (or the table has no ids)
+    public int idOf(CharSequence word) {
+        int slot = ids != null ? find(word, hash(word)) : -1;
+        return slot >= 0 ? ids[slot] : -1;
+    }
+
+    // Word with the given id; still returns words that were removed since
+    public String wordById(int id) {
+        return wordsById[id];
+    }
+
+    // Add all counts of another table to this one. If both tables have ids,
+    // returns the new id of every word of the other table, indexed by its id
+    // there; otherwise null.
+    public int[] addAll(WordFrequencyTable other) {
+        int[] newIds = ids != null && other.ids != null ? new int[other.nextId] : null;
+        for (int slot = 0; slot < other.words.length; slot++) {
+            if (other.words[slot] != null) {
+                int newSlot = add(other.words[slot], other.hashes[slot], other.counts[slot]);
+                if (newIds != null) {
+                    newIds[other.ids[slot]] = ids[newSlot];
+                }
+            }
+        }
+        return newIds;
+    }
+
+    // Double the table, reusing the stored hash codes instead of rehashing the words
+    private void grow() {
+        String[] oldWords = words;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        int[] oldIds = ids;
+        allocate(oldWords.length * 2);
+        for (int i = 0; i < oldWords.length; i++) {
+            if (oldWords[i] != null) {
+                int slot = spread(oldHashes[i]) & mask;
+                while (words[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                words[slot] = oldWords[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+                if (ids != null) {
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+    }
+
+    // Number of distinct words
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Slot access for iterating over the table: slots without a word return null
+    public int capacity() {
+        return words.length;
+    }
+
+    public String wordAt(int slot) {
+        return words[slot];
+    }
+
+    public int countAt(int slot) {
+        return counts[slot];
+    }
+
+    public int idAt(int slot) {
+        return ids[slot];
+    }
+}
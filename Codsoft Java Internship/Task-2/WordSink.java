@@ -0,0 +1,26 @@
+// WordSink interface for anything that consumes the words of a tokenizer,
+// such as WordStatistics or the postings of an inverted index
+interface WordSink {
+    // Consume one lowercase word; the sequence is only valid during the call
+    void addWord(CharSequence word);
+
+    // Called after the last word of each document
+    void endDocument();
+
+    // A sink that hands every word to both sinks, e.g. to count and index in one pass
+    static WordSink both(WordSink first, WordSink second) {
+        return new WordSink() {
+            @Override
+            public void addWord(CharSequence word) {
+                first.addWord(word);
+                second.addWord(word);
+            }
+
+            @Override
+            public void endDocument() {
+                first.endDocument();
+                second.endDocument();
+            }
+        };
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.List;
+
+// WordStatistics class to hold the result of a counting run: the total number
+// of counted words and how often each distinct word occurred. In approximate
+// mode only the most frequent words are tracked and the number of unique
+// words is estimated, both in fixed memory. In exact mode the same pass can
+// also count phrases (bigrams and trigrams) by word id.
+class WordStatistics implements WordSink {
+    private long wordCount;
+    private WordFrequencyTable frequencies;        // Exact mode, null in approximate mode
+    private SpaceSavingSketch heavyHitters;        // Approximate mode, null in exact mode
+    private HyperLogLog uniqueWords;               // Approximate mode, null in exact mode
+    private final StopWordSet stopWords;           // Null when no words are ignored
+
+    // Phrase counting, null unless enabled
+    private NGramTable bigrams;
+    private NGramTable trigrams;
+    // Ids of the first two and the last three words of the current document, to
+    // form phrases and to join the phrases of neighbouring parts when merging
+    private final int[] firstIds = new int[2];
+    private int firstIdCount;
+    private final int[] recentIds = new int[3];
+    private int recentIdCount;
+
+    public WordStatistics(WordCountOptions options) {
+        if (options.isApproximate()) {
+            this.heavyHitters = new SpaceSavingSketch(options.getErrorBound());
+            this.uniqueWords = new HyperLogLog(options.getUniqueWordsPrecision());
+        } else {
+            // Phrases refer to words by id; without them the table need not keep removed words
+            this.frequencies = new WordFrequencyTable(options.isCountingPhrases());
+        }
+
+        if (options.isCountingPhrases()) {
+            if (options.isApproximate()) {
+                throw new IllegalArgumentException("Phrases can only be counted in exact mode");
+            }
+            this.bigrams = new NGramTable(2, options.getPhraseMemoryLimit() / 2);
+            this.trigrams = new NGramTable(3, options.getPhraseMemoryLimit() / 2);
+        }
+
+        this.stopWords = options.getStopWords();
+    }
+
+    // Record one occurrence of an already lowercased word, unless it is ignored
+    @Override
+    public void addWord(CharSequence word) {
+        if (stopWords != null && stopWords.contains(word)) {
+            return; // Ignore common words
+        }
+
+        wordCount++;
+        if (bigrams != null) {
+            addPhraseWord(frequencies.addAndGetId(word, 1), 2);
+        } else if (frequencies != null) {
+            frequencies.add(word, 1);
+        } else {
+            heavyHitters.add(word);
+            uniqueWords.add(word);
+        }
+    }
+
+    // Move the word into the window of recent words and count the phrases
+    // of at least minLength words that end with it
+    private void addPhraseWord(int id, int minLength) {
+        if (firstIdCount < firstIds.length) {
+            firstIds[firstIdCount++] = id;
+        }
+        recentIds[0] = recentIds[1];
+        recentIds[1] = recentIds[2];
+        recentIds[2] = id;
+        if (recentIdCount < recentIds.length) {
+            recentIdCount++;
+        }
+
+        if (recentIdCount >= 2 && minLength <= 2) {
+            bigrams.add(recentIds, 1);
+        }
+        if (recentIdCount == 3 && minLength <= 3) {
+            trigrams.add(recentIds, 0);
+        }
+    }
+
+    // Mark the end of a document, so no phrase spans two documents
+    @Override
+    public void endDocument() {
+        firstIdCount = 0;
+        recentIdCount = 0;
+    }
+
+    // Take back one occurrence of a word recorded with addWord (exact mode only)
+    public void removeWord(CharSequence word) {
+        if (stopWords != null && stopWords.contains(word)) {
+            return;
+        }
+
+        wordCount--;
+        if (frequencies.add(word, -1) == 0) {
+            frequencies.remove(word);
+        }
+    }
+
+    // Record every remaining word of the tokenizer
+    public void addWords(WordTokenizer tokenizer) {
+        while (tokenizer.next()) {
+            addWord(tokenizer.token());
+        }
+    }
+
+    // Add the counts of another run with the same options (e.g. of another document) to this one.
+    // The other statistics may share tables with this one afterwards and must not be used any more.
+    public void merge(WordStatistics other) {
+        merge(other, false);
+        endDocument();
+    }
+
+    // Like merge(), for the statistics of the text directly following this
+    // one's: phrases spanning the two parts are counted as well
+    public void mergeFollowing(WordStatistics other) {
+        merge(other, true);
+    }
+
+    private void merge(WordStatistics other, boolean adjacent) {
+        if (frequencies == null) {
+            heavyHitters.merge(other.heavyHitters);
+            uniqueWords.merge(other.uniqueWords);
+            wordCount += other.wordCount;
+            return;
+        }
+
+        // Fold the smaller table into the larger one; the words of the smaller one get new ids
+        boolean swap = other.frequencies.size() > frequencies.size();
+        WordFrequencyTable larger = swap ? other.frequencies : frequencies;
+        int[] newIds = larger.addAll(swap ? frequencies : other.frequencies);
+        frequencies = larger;
+        other.frequencies = null;
+        wordCount += other.wordCount;
+
+        if (bigrams != null) {
+            if (swap) {
+                other.bigrams.addAll(bigrams, newIds);
+                other.trigrams.addAll(trigrams, newIds);
+                bigrams = other.bigrams;
+                trigrams = other.trigrams;
+                translate(firstIds, firstIdCount, newIds);
+                translate(recentIds, recentIdCount, newIds);
+            } else {
+                bigrams.addAll(other.bigrams, newIds);
+                trigrams.addAll(other.trigrams, newIds);
+                translate(other.firstIds, other.firstIdCount, newIds);
+                translate(other.recentIds, other.recentIdCount, newIds);
+            }
+
+            if (adjacent) {
+                // Count the phrases that start here and end in the other part; phrases
+                // ending at its i-th word with at most i + 1 words lie entirely in the other part
+                for (int i = 0; i < other.firstIdCount; i++) {
+                    addPhraseWord(other.firstIds[i], i + 2);
+                }
+                if (other.recentIdCount == recentIds.length) {
+                    System.arraycopy(other.recentIds, 0, recentIds, 0, recentIds.length);
+                    recentIdCount = recentIds.length;
+                }
+            }
+        }
+    }
+
+    private static void translate(int[] ids, int count, int[] newIds) {
+        for (int i = 0; i < count; i++) {
+            ids[i] = newIds[ids[i]];
+        }
+    }
+
+    // The k most frequent words, most frequent first
+    public List<RankedWord> topWords(int k) {
+        if (frequencies != null) {
+            return TopWords.exact(frequencies, k);
+        }
+        return heavyHitters.top(k);
+    }
+
+    public boolean isApproximate() {
+        return frequencies == null;
+    }
+
+    // Upper bound for how much any count of topWords() may be too high
+    public long getMaximumError() {
+        return frequencies != null ? 0 : heavyHitters.getMaximumError();
+    }
+
+    // Number of distinct words; an estimate in approximate mode
+    public long getUniqueWordCount() {
+        return frequencies != null ? frequencies.size() : uniqueWords.estimate();
+    }
+
+    // Sketch behind getUniqueWordCount() in approximate mode, null in exact mode
+    public HyperLogLog getUniqueWordsSketch() {
+        return uniqueWords;
+    }
+
+    public long getWordCount() {
+        return wordCount;
+    }
+
+    public boolean isCountingPhrases() {
+        return bigrams != null;
+    }
+
+    // The k most frequent two-word phrases, most frequent first
+    public List<RankedWord> topBigrams(int k) {
+        return bigrams.top(k, frequencies);
+    }
+
+    // The k most frequent three-word phrases, most frequent first
+    public List<RankedWord> topTrigrams(int k) {
+        return trigrams.top(k, frequencies);
+    }
+
+    // Upper bound for how much any phrase count may be too low, because rare phrases were pruned to save memory
+    public long getPhraseMaximumUndercount() {
+        return Math.max(bigrams.getMaximumUndercount(), trigrams.getMaximumUndercount());
+    }
+
+    // The exact frequency table, null in approximate mode
+    public WordFrequencyTable getFrequencies() {
+        return frequencies;
+    }
+}
@@ -0,0 +1,86 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.List;
+
+// WordStatisticsDialog class to show the statistics of a counting run: the
+// summary on top and the ranked words (and phrases) in sortable tables below.
+// It also shows the documents found by an index search, ranked the same way.
+class WordStatisticsDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+
+    public WordStatisticsDialog(Frame owner, WordStatistics result, int topWords) {
+        super(owner, "Word Statistics", false);
+        setSize(500, 500);
+        setLocationRelativeTo(owner);
+
+        JPanel contentPane = new JPanel(new BorderLayout(0, 10));
+        contentPane.setBorder(new EmptyBorder(15, 15, 15, 15));
+        setContentPane(contentPane);
+
+        JPanel summaryPanel = new JPanel(new GridLayout(0, 1));
+        summaryPanel.add(new JLabel("Word Count: " + result.getWordCount()));
+        if (result.isApproximate()) {
+            summaryPanel.add(new JLabel("Number of Unique Words: about " + result.getUniqueWordCount()
+                    + String.format(" (standard error %.2f%%)", result.getUniqueWordsSketch().getStandardError() * 100)));
+            summaryPanel.add(new JLabel("Counts are at most " + result.getMaximumError() + " too high"));
+        } else {
+            summaryPanel.add(new JLabel("Number of Unique Words: " + result.getUniqueWordCount()));
+        }
+        if (result.isCountingPhrases() && result.getPhraseMaximumUndercount() > 0) {
+            summaryPanel.add(new JLabel("Rare phrases were dropped to save memory; phrase counts are at most "
+                    + result.getPhraseMaximumUndercount() + " too low"));
+        }
+        contentPane.add(summaryPanel, BorderLayout.NORTH);
+
+        JScrollPane wordsPane = createTable(result.topWords(topWords), "Word", result.isApproximate());
+        if (result.isCountingPhrases()) {
+            JTabbedPane tabs = new JTabbedPane();
+            tabs.addTab("Words", wordsPane);
+            tabs.addTab("Two-Word Phrases", createTable(result.topBigrams(topWords), "Phrase", false));
+            tabs.addTab("Three-Word Phrases", createTable(result.topTrigrams(topWords), "Phrase", false));
+            contentPane.add(tabs, BorderLayout.CENTER);
+        } else {
+            contentPane.add(wordsPane, BorderLayout.CENTER);
+        }
+
+        addCloseButton(contentPane);
+    }
+
+    // Dialog with a summary line and a single ranking, e.g. the documents containing a word
+    public WordStatisticsDialog(Frame owner, String title, String summary, List<RankedWord> ranking, String itemName) {
+        super(owner, title, false);
+        setSize(500, 500);
+        setLocationRelativeTo(owner);
+
+        JPanel contentPane = new JPanel(new BorderLayout(0, 10));
+        contentPane.setBorder(new EmptyBorder(15, 15, 15, 15));
+        setContentPane(contentPane);
+
+        contentPane.add(new JLabel(summary), BorderLayout.NORTH);
+        contentPane.add(createTable(ranking, itemName, false), BorderLayout.CENTER);
+        addCloseButton(contentPane);
+    }
+
+    private void addCloseButton(JPanel contentPane) {
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dispose();
+            }
+        });
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(closeButton);
+        contentPane.add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private static JScrollPane createTable(List<RankedWord> ranking, String itemName, boolean showErrors) {
+        JTable table = new JTable(new RankedWordTableModel(ranking, itemName, showErrors));
+        table.setAutoCreateRowSorter(true); // Click a column header to sort by it
+        table.setFillsViewportHeight(true);
+        return new JScrollPane(table);
+    }
+}
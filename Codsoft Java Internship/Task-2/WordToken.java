@@ -0,0 +1,60 @@
+import java.util.Locale;
+
+// WordToken class to hold the current word of a tokenizer. The same instance
+// (and its char buffer) is reused for every word, so tokenizing does not
+// allocate; call toString() only when the word has to be kept.
+class WordToken implements CharSequence {
+    private char[] chars = new char[32];
+    private int length;
+
+    void clear() {
+        length = 0;
+    }
+
+    void append(char c) {
+        if (length == chars.length) {
+            char[] larger = new char[chars.length * 2];
+            System.arraycopy(chars, 0, larger, 0, length);
+            chars = larger;
+        }
+        chars[length++] = c;
+    }
+
+    void append(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            append(s.charAt(i));
+        }
+    }
+
+    // Lowercase the whole word as String.toLowerCase() does. Going char by char
+    // would miss the rules that depend on the rest of the word, such as the
+    // final sigma, and letters whose lowercase form is longer, such as the dotted capital I.
+    void toLowerCase() {
+        String lower = toString().toLowerCase(Locale.ROOT);
+        length = 0;
+        append(lower);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,75 @@
+// WordTokenizer class to split text into lowercase words in a single scan.
+// Words are separated by whitespace or ASCII punctuation, the same boundaries
+// as the regular expression "\\s+|\\p{Punct}", but no String array or
+// per-word Strings are created: each word is handed out through one
+// reusable WordToken.
+class WordTokenizer {
+    // Delimiter lookup for ASCII characters; every other character is part of a word
+    private static final boolean[] DELIMITERS = new boolean[128];
+
+    static {
+        for (char c : " \t\n\u000B\f\r".toCharArray()) {
+            DELIMITERS[c] = true;
+        }
+        for (char c : "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".toCharArray()) {
+            DELIMITERS[c] = true;
+        }
+    }
+
+    private final WordToken token = new WordToken();
+    private CharSequence text;
+    private int position;
+    private int end;
+
+    public static boolean isDelimiter(int c) {
+        return c >= 0 && c < DELIMITERS.length && DELIMITERS[c];
+    }
+
+    public WordTokenizer reset(CharSequence text) {
+        return reset(text, 0, text.length());
+    }
+
+    // Tokenize only the characters from start (inclusive) to end (exclusive)
+    public WordTokenizer reset(CharSequence text, int start, int end) {
+        this.text = text;
+        this.position = start;
+        this.end = end;
+        return this;
+    }
+
+    // Advance to the next word; returns false when the text is exhausted
+    public boolean next() {
+        while (position < end && isDelimiter(text.charAt(position))) {
+            position++;
+        }
+        if (position == end) {
+            return false;
+        }
+
+        token.clear();
+        boolean ascii = true;
+        while (position < end) {
+            char c = text.charAt(position);
+            if (c < DELIMITERS.length) {
+                if (DELIMITERS[c]) {
+                    break;
+                }
+                // Lowercase ASCII letters without a table lookup
+                token.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            } else {
+                token.append(c);
+                ascii = false;
+            }
+            position++;
+        }
+        if (!ascii) {
+            token.toLowerCase(); // Only words with other characters need the full rules
+        }
+        return true;
+    }
+
+    // The current word; only valid until the next call to next()
+    public WordToken token() {
+        return token;
+    }
+}
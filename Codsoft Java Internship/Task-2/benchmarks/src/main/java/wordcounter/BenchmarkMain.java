@@ -0,0 +1,21 @@
+package wordcounter;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// BenchmarkMain class to run the benchmarks with the gc profiler always on,
+// so every result includes the allocation rate (gc.alloc.rate.norm is the
+// number of bytes allocated per operation). Takes the usual JMH options,
+// e.g. "TokenizerBenchmark -p words=1000000" or "-rf json -rff result.json".
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package wordcounter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+// Corpus class to produce the benchmark input text. "zipf" and "uniform" are
+// synthetic texts of random words: with Zipf-distributed frequencies like
+// natural language, or all equally frequent (many unique words, the worst
+// case for the frequency table). Any other name is read as a UTF-8 file of
+// real text, repeated until it has at least the requested number of words.
+final class Corpus {
+    // The most frequent words of English text take the top ranks of the synthetic vocabulary,
+    // so stop word filtering has as much to do as on real text
+    private static final String[] COMMON = {"the", "of", "and", "to", "a", "in", "is", "it", "you", "that",
+            "he", "was", "for", "on", "are", "with", "as", "i", "his", "they", "be", "at", "one", "have", "this"};
+    private static final String[] PUNCTUATION = {" ", " ", " ", " ", " ", " ", ", ", ". ", "; ", "\n"};
+
+    private Corpus() {
+    }
+
+    static String create(String name, int words) throws IOException {
+        switch (name) {
+            case "zipf":
+                return synthetic(words, true);
+            case "uniform":
+                return synthetic(words, false);
+            default:
+                return fromFile(name, words);
+        }
+    }
+
+    private static String synthetic(int words, boolean zipf) {
+        Random random = new Random(42); // Same text in every fork, so runs are comparable
+        int vocabulary = Math.max(1000, words / 10);
+        String[] dictionary = new String[vocabulary];
+        for (int i = 0; i < vocabulary; i++) {
+            dictionary[i] = i < COMMON.length ? COMMON[i] : randomWord(random);
+        }
+        // Zipf: the word of rank r occurs with probability proportional to 1 / r
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += zipf ? 1.0 / (i + 1) : 1.0;
+            cumulative[i] = sum;
+        }
+
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            String word = dictionary[Math.min(index < 0 ? -index - 1 : index, vocabulary - 1)];
+            // Capitalize some words, so lowercasing is exercised too
+            if (random.nextInt(10) == 0) {
+                text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                text.append(word);
+            }
+            text.append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String randomWord(Random random) {
+        int length = 2 + random.nextInt(8);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static String fromFile(String file, int words) throws IOException {
+        String content = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        WordTokenizer tokenizer = new WordTokenizer().reset(content);
+        int available = 0;
+        while (tokenizer.next()) {
+            available++;
+        }
+        if (available == 0) {
+            throw new IOException("No words in " + file);
+        }
+
+        // Whole copies of the text, as many as needed for the requested number of words
+        int copies = (words + available - 1) / available;
+        StringBuilder text = new StringBuilder((content.length() + 1) * copies);
+        for (int i = 0; i < copies; i++) {
+            text.append(content).append('\n');
+        }
+        return text.toString();
+    }
+}
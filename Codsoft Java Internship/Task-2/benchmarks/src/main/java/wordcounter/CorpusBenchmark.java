@@ -0,0 +1,40 @@
+package wordcounter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// CorpusBenchmark class with the settings shared by all benchmarks: every
+// operation processes the whole corpus once, so words per second is the
+// reported score (ops/s) times the number of words.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CorpusBenchmark {
+    // "zipf" or "uniform" for synthetic text, or the path of a UTF-8 text file
+    @Param({"zipf", "uniform"})
+    public String corpus;
+
+    // Number of words in the corpus
+    @Param({"10000", "100000", "1000000"})
+    public int words;
+
+    protected String text;
+
+    @Setup
+    public void createCorpus() throws IOException {
+        text = Corpus.create(corpus, words);
+    }
+}
@@ -0,0 +1,55 @@
+package wordcounter;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+
+// CountingBenchmark class to measure counting word frequencies, from the
+// original HashMap of Strings to the counting modes of WordStatistics
+public class CountingBenchmark extends CorpusBenchmark {
+    private final WordTokenizer tokenizer = new WordTokenizer();
+
+    // The original countWords(): split, lowercase and count in a HashMap
+    @Benchmark
+    public Map<String, Integer> hashMap() {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String word : text.split("\\s+|\\p{Punct}")) {
+            word = word.toLowerCase();
+            if (!word.isEmpty()) {
+                frequencies.put(word, frequencies.getOrDefault(word, 0) + 1);
+            }
+        }
+        return frequencies;
+    }
+
+    @Benchmark
+    public WordStatistics exact() {
+        WordStatistics statistics = new WordStatistics(new WordCountOptions());
+        statistics.addWords(tokenizer.reset(text));
+        return statistics;
+    }
+
+    @Benchmark
+    public WordStatistics approximate() {
+        WordCountOptions options = new WordCountOptions();
+        options.setApproximate(true);
+        WordStatistics statistics = new WordStatistics(options);
+        statistics.addWords(tokenizer.reset(text));
+        return statistics;
+    }
+
+    @Benchmark
+    public WordStatistics phrases() {
+        WordCountOptions options = new WordCountOptions();
+        options.setCountingPhrases(true);
+        WordStatistics statistics = new WordStatistics(options);
+        statistics.addWords(tokenizer.reset(text));
+        return statistics;
+    }
+
+    // Exact counting split across the common fork/join pool
+    @Benchmark
+    public WordStatistics parallel() {
+        return new ParallelWordCounter(new WordCountOptions()).count(text);
+    }
+}
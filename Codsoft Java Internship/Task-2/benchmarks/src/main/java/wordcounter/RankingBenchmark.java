@@ -0,0 +1,51 @@
+package wordcounter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+// RankingBenchmark class to measure sorting the counted words by frequency:
+// sorting every map entry (as in the original countWords()) against the
+// bounded heap of TopWords, for the top k words and for all of them
+public class RankingBenchmark extends CorpusBenchmark {
+    // Number of top words to rank, or "all" for the 'All Words' ranking of the GUI
+    @Param({"10", "1000", "all"})
+    public String k;
+
+    private int limit;
+    private Map<String, Integer> hashMap;
+    private WordFrequencyTable frequencies;
+
+    @Setup
+    public void count() {
+        limit = k.equals("all") ? Integer.MAX_VALUE : Integer.parseInt(k);
+
+        WordStatistics statistics = new WordStatistics(new WordCountOptions());
+        statistics.addWords(new WordTokenizer().reset(text));
+        frequencies = statistics.getFrequencies();
+
+        hashMap = new HashMap<>();
+        for (int slot = 0; slot < frequencies.capacity(); slot++) {
+            if (frequencies.wordAt(slot) != null) {
+                hashMap.put(frequencies.wordAt(slot), frequencies.countAt(slot));
+            }
+        }
+    }
+
+    // The original countWords(): sort all entries, then take the first k
+    @Benchmark
+    public List<Map.Entry<String, Integer>> sortAllEntries() {
+        List<Map.Entry<String, Integer>> sortedEntries = new ArrayList<>(hashMap.entrySet());
+        sortedEntries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return sortedEntries.subList(0, Math.min(limit, sortedEntries.size()));
+    }
+
+    @Benchmark
+    public List<RankedWord> topWords() {
+        return TopWords.exact(frequencies, limit);
+    }
+}
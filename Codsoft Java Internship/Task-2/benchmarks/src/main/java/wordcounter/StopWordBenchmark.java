@@ -0,0 +1,82 @@
+package wordcounter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+// StopWordBenchmark class to measure filtering out common words: a HashSet
+// of Strings (as in the original countWords()) against StopWordSet, which
+// also accepts the reused token of the tokenizer without copying it
+public class StopWordBenchmark extends CorpusBenchmark {
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    private String[] tokens;
+    private Set<String> hashSet;
+    private StopWordSet stopWords;
+
+    @Setup
+    public void prepare() throws IOException {
+        List<String> list = new ArrayList<>();
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            list.add(tokenizer.token().toString());
+        }
+        tokens = list.toArray(new String[0]);
+
+        // The same words in both sets; the list is read like StopWordSet reads it
+        stopWords = StopWordSet.forLanguage("english");
+        hashSet = new HashSet<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(
+                StopWordSet.class.getResourceAsStream("/stopwords/english.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                int comment = line.indexOf('#');
+                tokenizer.reset(line, 0, comment >= 0 ? comment : line.length());
+                while (tokenizer.next()) {
+                    hashSet.add(tokenizer.token().toString());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int hashSet() {
+        int kept = 0;
+        for (String token : tokens) {
+            if (!hashSet.contains(token)) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    @Benchmark
+    public int stopWordSet() {
+        int kept = 0;
+        for (String token : tokens) {
+            if (!stopWords.contains(token)) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    // Tokenizing and filtering together, the way WordStatistics does it
+    @Benchmark
+    public int stopWordSetOnTokens() {
+        int kept = 0;
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            if (!stopWords.contains(tokenizer.token())) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+}
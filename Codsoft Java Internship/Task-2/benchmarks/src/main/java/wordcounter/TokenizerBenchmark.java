@@ -0,0 +1,29 @@
+package wordcounter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+// TokenizerBenchmark class to compare splitting the text into lowercase words
+// with the original regular expression and with WordTokenizer
+public class TokenizerBenchmark extends CorpusBenchmark {
+    private final WordTokenizer tokenizer = new WordTokenizer();
+
+    // The original countWords(): split, then lowercase every word
+    @Benchmark
+    public void regexSplit(Blackhole blackhole) {
+        for (String word : text.split("\\s+|\\p{Punct}")) {
+            word = word.toLowerCase();
+            if (!word.isEmpty()) {
+                blackhole.consume(word);
+            }
+        }
+    }
+
+    @Benchmark
+    public void wordTokenizer(Blackhole blackhole) {
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            blackhole.consume(tokenizer.token());
+        }
+    }
+}
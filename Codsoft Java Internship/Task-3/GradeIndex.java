@@ -0,0 +1,36 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// GradeIndex class to find the students with a grade without a scan: one
+// roll number bitmap per grade
+class GradeIndex {
+    private final Map<String, RollNumberBitmap> rollNumbersByGrade = new HashMap<>();
+
+    public void add(String grade, int rollNumber) {
+        rollNumbersByGrade.computeIfAbsent(grade, g -> new RollNumberBitmap()).add(rollNumber);
+    }
+
+    public void remove(String grade, int rollNumber) {
+        RollNumberBitmap rollNumbers = rollNumbersByGrade.get(grade);
+        if (rollNumbers != null && rollNumbers.remove(rollNumber) && rollNumbers.isEmpty()) {
+            rollNumbersByGrade.remove(grade);
+        }
+    }
+
+    // Roll numbers of the students with the grade, ascending
+    public IntStream rollNumbers(String grade) {
+        RollNumberBitmap rollNumbers = rollNumbersByGrade.get(grade);
+        return rollNumbers == null ? IntStream.empty() : rollNumbers.stream();
+    }
+
+    public int count(String grade) {
+        RollNumberBitmap rollNumbers = rollNumbersByGrade.get(grade);
+        return rollNumbers == null ? 0 : rollNumbers.size();
+    }
+
+    public Set<String> grades() {
+        return rollNumbersByGrade.keySet();
+    }
+}
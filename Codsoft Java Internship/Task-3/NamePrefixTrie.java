@@ -0,0 +1,225 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+// NamePrefixTrie class to find the students whose name starts with a prefix,
+// ignoring case. Names are stored in a compressed (radix) trie: every edge
+// holds a whole run of characters, so a name adds at most two nodes, and a
+// lookup walks at most one node per character of the prefix. The roll
+// numbers of the students are kept at the node where their name ends.
+class NamePrefixTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_ROLL_NUMBERS = new int[0];
+
+    private static final class Node {
+        String label; // Characters on the edge from the parent
+        Node[] children = NO_CHILDREN; // Sorted by the first character of their label
+        int childCount;
+        int[] rollNumbers = NO_ROLL_NUMBERS; // Students whose name ends here
+        int rollNumberCount;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Node root = new Node("");
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public void add(String name, int rollNumber) {
+        String key = fold(name);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = findChild(node, key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                insertChild(node, -index - 1, leaf);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge where the name leaves it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[] {child};
+                middle.childCount = 1;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.rollNumberCount == node.rollNumbers.length) {
+            node.rollNumbers = Arrays.copyOf(node.rollNumbers, Math.max(1, node.rollNumberCount * 2));
+        }
+        node.rollNumbers[node.rollNumberCount++] = rollNumber;
+    }
+
+    public void remove(String name, int rollNumber) {
+        String key = fold(name);
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = findChild(node, key.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, i)) {
+                return;
+            }
+            path.push(node);
+            node = child;
+            i += child.label.length();
+        }
+
+        int position = -1;
+        for (int j = 0; j < node.rollNumberCount; j++) {
+            if (node.rollNumbers[j] == rollNumber) {
+                position = j;
+                break;
+            }
+        }
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(node.rollNumbers, position + 1, node.rollNumbers, position, node.rollNumberCount - position - 1);
+        node.rollNumberCount--;
+
+        // Drop nodes that lead nowhere and merge the ones that only pass through
+        while (node != root && node.rollNumberCount == 0) {
+            Node parent = path.pop();
+            if (node.childCount == 0) {
+                removeChild(parent, node);
+            } else if (node.childCount == 1) {
+                Node child = node.children[0];
+                child.label = node.label + child.label;
+                parent.children[findChild(parent, child.label.charAt(0))] = child;
+                break;
+            } else {
+                break;
+            }
+            node = parent;
+        }
+    }
+
+    // Roll numbers of the students whose name starts with the prefix, in name
+    // order; read lazily, so the trie must not change while the stream is used
+    public IntStream rollNumbersWithPrefix(String prefix) {
+        String key = fold(prefix);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = findChild(node, key.charAt(i));
+            if (index < 0) {
+                return IntStream.empty();
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (i + common == key.length()) {
+                node = child; // The prefix ends on this edge (or at its end)
+                break;
+            }
+            if (common < child.label.length()) {
+                return IntStream.empty();
+            }
+            node = child;
+            i += common;
+        }
+        Spliterator.OfInt spliterator = Spliterators.spliteratorUnknownSize(new SubtreeIterator(node),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.intStream(spliterator, false);
+    }
+
+    // Length of the common prefix of the label and key.substring(start)
+    private static int commonPrefix(String label, String key, int start) {
+        int max = Math.min(label.length(), key.length() - start);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(start + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // Binary search for the child whose label starts with c; returns -(insertion point) - 1 if there is none
+    private static int findChild(Node node, char c) {
+        int low = 0;
+        int high = node.childCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char first = node.children[middle].label.charAt(0);
+            if (first < c) {
+                low = middle + 1;
+            } else if (first > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int index, Node child) {
+        if (node.childCount == node.children.length) {
+            node.children = Arrays.copyOf(node.children, Math.max(2, node.childCount * 2));
+        }
+        System.arraycopy(node.children, index, node.children, index + 1, node.childCount - index);
+        node.children[index] = child;
+        node.childCount++;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        int index = findChild(node, child.label.charAt(0));
+        System.arraycopy(node.children, index + 1, node.children, index, node.childCount - index - 1);
+        node.children[--node.childCount] = null;
+    }
+
+    // Depth-first walk over the roll numbers below a node
+    private static class SubtreeIterator implements PrimitiveIterator.OfInt {
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private Node node;
+        private int position;
+
+        SubtreeIterator(Node start) {
+            stack.push(start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (node == null || position == node.rollNumberCount) {
+                if (stack.isEmpty()) {
+                    return false;
+                }
+                node = stack.pop();
+                position = 0;
+                for (int i = node.childCount - 1; i >= 0; i--) {
+                    stack.push(node.children[i]);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return node.rollNumbers[position++];
+        }
+    }
+}
@@ -0,0 +1,288 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+// RollNumberBitmap class to hold a set of roll numbers compactly. Roll numbers
+// are grouped by their upper 16 bits into blocks, which only exist while one
+// of their roll numbers is in the set. A block with few roll numbers keeps
+// their lower 16 bits in a sorted char array; once it has more than
+// ARRAY_MAX of them it becomes 65536 bits, which is smaller from there on.
+// So clustered roll numbers cost about one bit each and scattered ones a few
+// bytes each, even though any int is allowed.
+class RollNumberBitmap {
+    private static final int BLOCK_WORDS = 1 << 10; // 65536 bits
+    private static final int ARRAY_MAX = 4096; // As many chars as the bits take bytes
+    private static final int INITIAL_ARRAY_CAPACITY = 4;
+
+    private int[] blockKeys = new int[4]; // Upper 16 bits of the roll numbers, ascending
+    private int[] blockSizes = new int[4]; // Roll numbers in each block
+    // Per block, either the bits (then the array is null) or the sorted lower 16 bits
+    private long[][] bitBlocks = new long[4][];
+    private char[][] arrayBlocks = new char[4][];
+    private int blockCount;
+    private int size;
+
+    public boolean add(int rollNumber) {
+        int index = findBlock(rollNumber >> 16);
+        if (index < 0) {
+            index = -index - 1;
+            insertBlock(index, rollNumber >> 16);
+        }
+        char low = (char) rollNumber;
+        long[] bits = bitBlocks[index];
+        if (bits == null) {
+            char[] array = arrayBlocks[index];
+            int position = Arrays.binarySearch(array, 0, blockSizes[index], low);
+            if (position >= 0) {
+                return false;
+            }
+            if (blockSizes[index] < ARRAY_MAX) {
+                insertIntoArray(index, -position - 1, low);
+                size++;
+                return true;
+            }
+            bits = toBits(array, blockSizes[index]);
+            bitBlocks[index] = bits;
+            arrayBlocks[index] = null;
+        }
+        long mask = 1L << low;
+        if ((bits[low >>> 6] & mask) != 0) {
+            return false;
+        }
+        bits[low >>> 6] |= mask;
+        blockSizes[index]++;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int rollNumber) {
+        int index = findBlock(rollNumber >> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) rollNumber;
+        long[] bits = bitBlocks[index];
+        if (bits == null) {
+            int position = Arrays.binarySearch(arrayBlocks[index], 0, blockSizes[index], low);
+            if (position < 0) {
+                return false;
+            }
+            removeFromArray(index, position);
+        } else {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            bits[low >>> 6] &= ~mask;
+            // Back to an array well below ARRAY_MAX, so a block at the limit does not flip on every change
+            if (--blockSizes[index] <= ARRAY_MAX / 2) {
+                arrayBlocks[index] = toArray(bits, blockSizes[index]);
+                bitBlocks[index] = null;
+            }
+        }
+        size--;
+        if (blockSizes[index] == 0) {
+            removeBlock(index);
+        }
+        return true;
+    }
+
+    public boolean contains(int rollNumber) {
+        int index = findBlock(rollNumber >> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) rollNumber;
+        long[] bits = bitBlocks[index];
+        return bits == null ? Arrays.binarySearch(arrayBlocks[index], 0, blockSizes[index], low) >= 0
+                : (bits[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Lowest roll number in the set; looks at the first block only
+    public int first() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long[] bits = bitBlocks[0];
+        if (bits == null) {
+            return blockKeys[0] << 16 | arrayBlocks[0][0];
+        }
+        int word = 0;
+        while (bits[word] == 0) {
+            word++;
+        }
+        return blockKeys[0] << 16 | word << 6 | Long.numberOfTrailingZeros(bits[word]);
+    }
+
+    // Highest roll number in the set; looks at the last block only
+    public int last() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int index = blockCount - 1;
+        long[] bits = bitBlocks[index];
+        if (bits == null) {
+            return blockKeys[index] << 16 | arrayBlocks[index][blockSizes[index] - 1];
+        }
+        int word = BLOCK_WORDS - 1;
+        while (bits[word] == 0) {
+            word--;
+        }
+        return blockKeys[index] << 16 | word << 6 | (63 - Long.numberOfLeadingZeros(bits[word]));
+    }
+
+    // The roll numbers in ascending order, read lazily; the bitmap must not change while the stream is used
+    public IntStream stream() {
+        Spliterator.OfInt spliterator = Spliterators.spliterator(new BlockIterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.intStream(spliterator, false);
+    }
+
+    // Binary search for the block; returns -(insertion point) - 1 if there is none
+    private int findBlock(int key) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (blockKeys[middle] < key) {
+                low = middle + 1;
+            } else if (blockKeys[middle] > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Insert an empty array block
+    private void insertBlock(int index, int key) {
+        if (blockCount == blockKeys.length) {
+            blockKeys = Arrays.copyOf(blockKeys, blockCount * 2);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+            bitBlocks = Arrays.copyOf(bitBlocks, blockCount * 2);
+            arrayBlocks = Arrays.copyOf(arrayBlocks, blockCount * 2);
+        }
+        System.arraycopy(blockKeys, index, blockKeys, index + 1, blockCount - index);
+        System.arraycopy(blockSizes, index, blockSizes, index + 1, blockCount - index);
+        System.arraycopy(bitBlocks, index, bitBlocks, index + 1, blockCount - index);
+        System.arraycopy(arrayBlocks, index, arrayBlocks, index + 1, blockCount - index);
+        blockKeys[index] = key;
+        blockSizes[index] = 0;
+        bitBlocks[index] = null;
+        arrayBlocks[index] = new char[INITIAL_ARRAY_CAPACITY];
+        blockCount++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blockKeys, index + 1, blockKeys, index, blockCount - index - 1);
+        System.arraycopy(blockSizes, index + 1, blockSizes, index, blockCount - index - 1);
+        System.arraycopy(bitBlocks, index + 1, bitBlocks, index, blockCount - index - 1);
+        System.arraycopy(arrayBlocks, index + 1, arrayBlocks, index, blockCount - index - 1);
+        blockCount--;
+        bitBlocks[blockCount] = null;
+        arrayBlocks[blockCount] = null;
+    }
+
+    private void insertIntoArray(int index, int position, char low) {
+        char[] array = arrayBlocks[index];
+        int length = blockSizes[index];
+        if (length == array.length) {
+            array = Arrays.copyOf(array, Math.min(length * 2, ARRAY_MAX));
+            arrayBlocks[index] = array;
+        }
+        System.arraycopy(array, position, array, position + 1, length - position);
+        array[position] = low;
+        blockSizes[index]++;
+    }
+
+    private void removeFromArray(int index, int position) {
+        char[] array = arrayBlocks[index];
+        int length = --blockSizes[index];
+        System.arraycopy(array, position + 1, array, position, length - position);
+        // Give back memory once the array is mostly unused
+        if (array.length > INITIAL_ARRAY_CAPACITY && length <= array.length / 4) {
+            arrayBlocks[index] = Arrays.copyOf(array, Math.max(length * 2, INITIAL_ARRAY_CAPACITY));
+        }
+    }
+
+    private static long[] toBits(char[] array, int length) {
+        long[] bits = new long[BLOCK_WORDS];
+        for (int i = 0; i < length; i++) {
+            bits[array[i] >>> 6] |= 1L << array[i];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int length) {
+        char[] array = new char[length];
+        int i = 0;
+        for (int word = 0; word < BLOCK_WORDS; word++) {
+            for (long rest = bits[word]; rest != 0; rest &= rest - 1) {
+                array[i++] = (char) (word << 6 | Long.numberOfTrailingZeros(rest));
+            }
+        }
+        return array;
+    }
+
+    // Walks the roll numbers block by block: the set bits word by word, or the array in order
+    private class BlockIterator implements PrimitiveIterator.OfInt {
+        private int blockIndex = -1;
+        private int wordIndex; // Word in a bit block, next position in an array block
+        private long word;
+
+        BlockIterator() {
+            nextBlock();
+        }
+
+        private void nextBlock() {
+            blockIndex++;
+            wordIndex = 0;
+            word = blockIndex < blockCount && bitBlocks[blockIndex] != null ? bitBlocks[blockIndex][0] : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (blockIndex < blockCount) {
+                if (bitBlocks[blockIndex] == null) {
+                    if (wordIndex < blockSizes[blockIndex]) {
+                        return true;
+                    }
+                    nextBlock();
+                } else if (word != 0) {
+                    return true;
+                } else if (++wordIndex < BLOCK_WORDS) {
+                    word = bitBlocks[blockIndex][wordIndex];
+                } else {
+                    nextBlock();
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (bitBlocks[blockIndex] == null) {
+                return blockKeys[blockIndex] << 16 | arrayBlocks[blockIndex][wordIndex++];
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1; // Clear the lowest set bit
+            return blockKeys[blockIndex] << 16 | wordIndex << 6 | bit;
+        }
+    }
+}
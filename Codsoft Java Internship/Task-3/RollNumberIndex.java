@@ -0,0 +1,121 @@
+// RollNumberIndex class to map roll numbers to positions in the student list
+// without boxing. Keys and values live in two int arrays of an open-addressing
+// (linear probing) table, so a lookup is a hash plus (almost always) a single
+// comparison instead of a scan over all students.
+class RollNumberIndex {
+    private static final int INITIAL_CAPACITY = 64; // Must be a power of two
+
+    private int[] keys;
+    private int[] values; // Position + 1 per slot, 0 for an empty slot
+    private int size;
+    private int mask;
+
+    public RollNumberIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Spread the bits, since consecutive roll numbers would otherwise fill one run of slots
+    private static int spread(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Position stored for the roll number, or -1 if it is not in the index
+    public int get(int key) {
+        int slot = find(key);
+        return slot < 0 ? -1 : values[slot] - 1;
+    }
+
+    public boolean contains(int key) {
+        return find(key) >= 0;
+    }
+
+    // Store the position (0 or more) for the roll number, replacing any previous one
+    public void put(int key, int position) {
+        int slot = spread(key) & mask;
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = position + 1;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = position + 1;
+        if (++size > keys.length * 3 / 4) {
+            grow();
+        }
+    }
+
+    // Remove the roll number and return its position, -1 if it was not in the index
+    public int remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return -1;
+        }
+        int position = values[slot] - 1;
+        delete(slot);
+        return position;
+    }
+
+    private int find(int key) {
+        int slot = spread(key) & mask;
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Empty the slot and shift later entries of the same probe run back,
+    // so lookups never need tombstones
+    private void delete(int slot) {
+        size--;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (values[next] != 0) {
+            int ideal = spread(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != 0) {
+                int newSlot = spread(oldKeys[slot]) & mask;
+                while (values[newSlot] != 0) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// RosterStatistics class to keep figures about all students up to date as
+// they change, so they can be shown or polled without going over the
+// students: how many there are, how many have each grade and the range of
+// their roll numbers. The roll numbers are kept in a RollNumberBitmap, whose
+// blocks are sorted, so the lowest and highest one are found without a scan,
+// also after they were removed. Its sparse blocks are arrays, so the set
+// grows with the number of students, not with how far apart their roll
+// numbers are.
+class RosterStatistics {
+    private int studentCount;
+    private Map<String, Integer> gradeCounts = new HashMap<>();
+    private RollNumberBitmap rollNumbers = new RollNumberBitmap(); // Null in copies
+    private int minRollNumber; // Only set in copies
+    private int maxRollNumber;
+
+    public void added(int rollNumber, String grade) {
+        gradeCounts.merge(grade, 1, Integer::sum);
+        rollNumbers.add(rollNumber);
+        studentCount++;
+    }
+
+    public void removed(int rollNumber, String grade) {
+        gradeCounts.computeIfPresent(grade, (g, count) -> count == 1 ? null : count - 1);
+        rollNumbers.remove(rollNumber);
+        studentCount--;
+    }
+
+    public void edited(int oldRollNumber, String oldGrade, int rollNumber, String grade) {
+        if (rollNumber != oldRollNumber) {
+            removed(oldRollNumber, oldGrade);
+            added(rollNumber, grade);
+        } else if (!grade.equals(oldGrade)) {
+            gradeCounts.computeIfPresent(oldGrade, (g, count) -> count == 1 ? null : count - 1);
+            gradeCounts.merge(grade, 1, Integer::sum);
+        }
+    }
+
+    // Copy of the current figures, which later changes do not affect
+    public RosterStatistics copy() {
+        RosterStatistics copy = new RosterStatistics();
+        copy.studentCount = studentCount;
+        copy.gradeCounts = Collections.unmodifiableMap(new TreeMap<>(gradeCounts));
+        copy.rollNumbers = null;
+        copy.minRollNumber = getMinRollNumber();
+        copy.maxRollNumber = getMaxRollNumber();
+        return copy;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    // Number of students per grade; sorted by grade in a copy
+    public Map<String, Integer> getGradeCounts() {
+        return gradeCounts;
+    }
+
+    public int getGradeCount(String grade) {
+        return gradeCounts.getOrDefault(grade, 0);
+    }
+
+    // Lowest roll number; 0 when there are no students
+    public int getMinRollNumber() {
+        if (studentCount == 0) {
+            return 0;
+        }
+        return rollNumbers != null ? rollNumbers.first() : minRollNumber;
+    }
+
+    // Highest roll number; 0 when there are no students
+    public int getMaxRollNumber() {
+        if (studentCount == 0) {
+            return 0;
+        }
+        return rollNumbers != null ? rollNumbers.last() : maxRollNumber;
+    }
+}
@@ -0,0 +1,400 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+// StudentHttpServer class to serve a StudentManagementSystem as a JSON API on
+// localhost, so it can be used from scripts and by several clients at once.
+// Each request runs on its own virtual thread (a cached thread pool before
+// Java 21); connections are kept alive between requests.
+//
+//   GET    /students?grade=A&name=Jo&offset=0&limit=1000   list or search students
+//   POST   /students                  add one student (JSON object)
+//   GET    /students/{rollNumber}     look a student up
+//   PUT    /students/{rollNumber}     replace a student (JSON object)
+//   DELETE /students/{rollNumber}     remove a student
+//   POST   /students/batch            {"add":[students],"remove":[roll numbers]} in one write
+//   POST   /students/import           lines in the students.txt format, added in one write
+//   GET    /students/statistics       number of students, per grade and range of roll numbers
+class StudentHttpServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = 10000;
+    private static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+    private final StudentManagementSystem managementSystem;
+    private final HttpServer server;
+    private final ExecutorService executor = newRequestExecutor();
+
+    static {
+        // The JDK server writes the headers and the body of a response separately; with
+        // Nagle's algorithm on, the body of every response on a reused connection waits for
+        // the client's delayed ACK (about 40 ms). Must be set before the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    // Client errors, sent back with their status code and message
+    private static class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public StudentHttpServer(StudentManagementSystem managementSystem, int port) throws IOException {
+        this.managementSystem = managementSystem;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/students", this::handle);
+        server.setExecutor(executor);
+    }
+
+    // One virtual thread per request where the JDK has them
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(); // Before Java 21
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Stop accepting requests, giving running ones a second to finish
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status;
+        String response;
+        try {
+            byte[] body = readBody(exchange);
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals("/students") || path.equals("/students/")) {
+                if (method.equals("GET")) {
+                    status = 200;
+                    response = listStudents(queryParameters(exchange));
+                } else if (method.equals("POST")) {
+                    Student student = StudentJson.toStudent(parseJson(body));
+                    if (!managementSystem.addStudent(student)) {
+                        throw new RequestException(409, "Roll Number already exists: " + student.getRollNumber());
+                    }
+                    status = 201;
+                    response = studentJson(student);
+                } else {
+                    throw new RequestException(405, "Method not allowed");
+                }
+            } else if (path.equals("/students/batch")) {
+                requireMethod(method, "POST");
+                status = 200;
+                response = batch(parseJson(body));
+            } else if (path.equals("/students/statistics")) {
+                requireMethod(method, "GET");
+                status = 200;
+                response = statisticsJson(managementSystem.getStatistics());
+            } else if (path.equals("/students/import")) {
+                requireMethod(method, "POST");
+                status = 200;
+                response = importStudents(new String(body, StandardCharsets.UTF_8));
+            } else if (method.equals("DELETE")) {
+                // By roll number, so a student removed or edited meanwhile is not reported as removed by this request
+                int rollNumber = rollNumberInPath(path);
+                if (managementSystem.removeStudents(new int[] {rollNumber}) == 0) {
+                    throw new RequestException(404, "Student not found: " + rollNumber);
+                }
+                status = 204;
+                response = null;
+            } else {
+                int rollNumber = rollNumberInPath(path);
+                Student student = managementSystem.searchStudent(rollNumber);
+                if (student == null) {
+                    throw new RequestException(404, "Student not found: " + rollNumber);
+                }
+                if (method.equals("GET")) {
+                    status = 200;
+                    response = studentJson(student);
+                } else if (method.equals("PUT")) {
+                    Student newStudent = StudentJson.toStudent(parseJson(body));
+                    if (!managementSystem.editStudent(student, newStudent)) {
+                        throw new RequestException(409, "Student changed or Roll Number already exists");
+                    }
+                    status = 200;
+                    response = studentJson(newStudent);
+                } else {
+                    throw new RequestException(405, "Method not allowed");
+                }
+            }
+        } catch (RequestException e) {
+            status = e.status;
+            response = errorJson(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            response = errorJson(e.getMessage());
+        } catch (UncheckedIOException e) {
+            reportError(exchange, e);
+            status = 500;
+            response = errorJson("Could not save the change: " + e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            // Anything else is a fault of the server; the client still gets a response
+            reportError(exchange, e);
+            status = 500;
+            response = errorJson("Internal server error");
+        }
+        send(exchange, status, response);
+    }
+
+    // Server-side failures of a request, on standard error
+    private static void reportError(HttpExchange exchange, RuntimeException e) {
+        System.err.println(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + e);
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new RequestException(405, "Method not allowed");
+        }
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_SIZE + 1);
+            if (body.length > MAX_BODY_SIZE) {
+                throw new RequestException(413, "Request body too large");
+            }
+            return body;
+        }
+    }
+
+    private static Object parseJson(byte[] body) {
+        return StudentJson.parse(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static int rollNumberInPath(String path) {
+        String rollNumber = path.substring("/students/".length());
+        try {
+            return Integer.parseInt(rollNumber);
+        } catch (NumberFormatException e) {
+            throw new RequestException(404, "Not found: " + path);
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> parameters, String name, int defaultValue, int max) {
+        String value = parameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0 || number > max) {
+                throw new IllegalArgumentException(name + " must be between 0 and " + max);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // A page of all students, or of those with the grade or name prefix
+    private String listStudents(Map<String, String> parameters) {
+        int offset = intParameter(parameters, "offset", 0, Integer.MAX_VALUE);
+        int limit = intParameter(parameters, "limit", DEFAULT_LIMIT, MAX_LIMIT);
+        String grade = parameters.get("grade");
+        String name = parameters.get("name");
+        Stream<Student> students;
+        if (grade != null) {
+            students = managementSystem.searchByGrade(grade);
+            if (name != null) {
+                String prefix = name.toLowerCase(Locale.ROOT);
+                students = students.filter(s -> s.getName().toLowerCase(Locale.ROOT).startsWith(prefix));
+            }
+        } else if (name != null) {
+            students = managementSystem.searchByNamePrefix(name);
+        } else {
+            List<Student> all = managementSystem.getAllStudents();
+            students = all.subList(Math.min(offset, all.size()), all.size()).stream();
+            offset = 0;
+        }
+
+        StringBuilder json = new StringBuilder("{\"students\":[");
+        int count = 0;
+        for (Student student : (Iterable<Student>) students.skip(offset).limit(limit)::iterator) {
+            if (count++ > 0) {
+                json.append(',');
+            }
+            StudentJson.appendStudent(json, student);
+        }
+        return json.append("],\"count\":").append(count).append('}').toString();
+    }
+
+    private String batch(Object request) {
+        if (!(request instanceof Map)) {
+            throw new IllegalArgumentException("Expected {\"add\":[...],\"remove\":[...]}");
+        }
+        Map<?, ?> changes = (Map<?, ?>) request;
+        List<Student> toAdd = new ArrayList<>();
+        for (Object student : list(changes.get("add"))) {
+            toAdd.add(StudentJson.toStudent(student));
+        }
+        List<Object> remove = list(changes.get("remove"));
+        int[] toRemove = new int[remove.size()];
+        for (int i = 0; i < toRemove.length; i++) {
+            toRemove[i] = StudentJson.toRollNumber(remove.get(i));
+        }
+
+        // Removed first, so a batch can replace students by removing and adding the same roll numbers
+        StudentManagementSystem.BatchResult result = managementSystem.applyBatch(toRemove, toAdd);
+        return "{\"added\":" + result.getAddedCount() + ",\"skipped\":" + (toAdd.size() - result.getAddedCount())
+                + ",\"removed\":" + result.getRemovedCount() + "}";
+    }
+
+    private static List<Object> list(Object value) {
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Expected an array");
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) value;
+        return list;
+    }
+
+    // Add the "name,roll number,grade" lines of the text; lines that cannot be added are listed in the response
+    private String importStudents(String text) {
+        List<Student> students = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        String[] lines = text.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length != 3) {
+                problems.add("line " + (i + 1) + ": " + line + " (expected name,roll number,grade)");
+                continue;
+            }
+            if (line.indexOf('\r') >= 0) {
+                problems.add("line " + (i + 1) + ": " + line + " (line break in a field)");
+                continue;
+            }
+            try {
+                students.add(new Student(parts[0].trim(), Integer.parseInt(parts[1].trim()), parts[2].trim()));
+            } catch (NumberFormatException e) {
+                problems.add("line " + (i + 1) + ": " + line + " (invalid roll number)");
+            }
+        }
+        int added = managementSystem.addStudents(students);
+
+        StringBuilder json = new StringBuilder("{\"added\":").append(added)
+                .append(",\"duplicates\":").append(students.size() - added).append(",\"problems\":[");
+        for (int i = 0; i < problems.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            StudentJson.appendString(json, problems.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String statisticsJson(RosterStatistics statistics) {
+        StringBuilder json = new StringBuilder("{\"count\":").append(statistics.getStudentCount());
+        if (statistics.getStudentCount() > 0) {
+            json.append(",\"minRollNumber\":").append(statistics.getMinRollNumber())
+                    .append(",\"maxRollNumber\":").append(statistics.getMaxRollNumber());
+        }
+        json.append(",\"grades\":{");
+        boolean first = true;
+        for (Map.Entry<String, Integer> grade : statistics.getGradeCounts().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            StudentJson.appendString(json, grade.getKey());
+            json.append(':').append(grade.getValue());
+        }
+        return json.append("}}").toString();
+    }
+
+    private static String studentJson(Student student) {
+        StringBuilder json = new StringBuilder();
+        StudentJson.appendStudent(json, student);
+        return json.toString();
+    }
+
+    private static String errorJson(String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        StudentJson.appendString(json, String.valueOf(message));
+        return json.append('}').toString();
+    }
+
+    // Send the response with its length, so the connection can be reused
+    private static void send(HttpExchange exchange, int status, String response) throws IOException {
+        if (response == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        StudentManagementSystem managementSystem = new StudentManagementSystem();
+        StudentHttpServer server = new StudentHttpServer(managementSystem, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            managementSystem.close();
+        }));
+        server.start();
+        System.out.println("Serving students on http://localhost:" + server.getPort() + "/students");
+    }
+}
@@ -0,0 +1,423 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// StudentJournal class to make every change to the students durable as soon
+// as it is made. Each add, edit and remove is appended to a write-ahead log
+// next to students.txt; a background thread writes and fsyncs the log, and
+// changes made while one fsync runs are committed together by the next one
+// (group commit), so a change costs one small append instead of rewriting
+// the whole file.
+//
+// The log is periodically compacted: a new log file (generation) is started
+// and a background thread writes the students as they were at that point to
+// students.txt (or another snapshot format, see SnapshotWriter), which
+// records the last generation it includes.
+// Older logs are deleted once the new snapshot is in place. At startup the
+// snapshot is loaded and the newer logs are replayed on top of it.
+//
+// Log records: payload length (int), CRC32 of the payload (int), payload.
+// A record that is cut short or fails its checksum ends the log (a crash
+// while writing it); it is dropped and overwritten by the next change.
+class StudentJournal implements Closeable {
+    // Receives the changes read back from the logs at startup
+    interface Replay {
+        void added(Student student);
+
+        void edited(int oldRollNumber, Student student);
+
+        void removed(int rollNumber);
+    }
+
+    // Writes the students and the generation they include to a snapshot file
+    interface SnapshotWriter {
+        void write(List<Student> students, long generation, File file) throws IOException;
+    }
+
+    static final String GENERATION_HEADER = "# journal generation ";
+
+    private static final byte ADDED = 'A';
+    private static final byte EDITED = 'E';
+    private static final byte REMOVED = 'R';
+    // Changes logged before the log is compacted into a new snapshot
+    private static final int COMPACT_AFTER_RECORDS = 10000;
+
+    private final File dataFile;
+    private final SnapshotWriter snapshotWriter;
+    private final Object lock = new Object();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> daemon(r, "student-journal-compactor"));
+    private final Thread flusher;
+
+    // Guarded by lock
+    private FileChannel log;
+    private long generation;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(); // Appended, not yet written
+    private long appendedCount;
+    private long durableCount;
+    private IOException failure;
+    private boolean closed;
+
+    private int recordsSinceSnapshot;
+    private Future<?> compaction;
+
+    // Replay the logs newer than the snapshot generation and open the log for new changes
+    public StudentJournal(File dataFile, long snapshotGeneration, SnapshotWriter snapshotWriter, Replay replay) throws IOException {
+        this.dataFile = dataFile;
+        this.snapshotWriter = snapshotWriter;
+        generation = snapshotGeneration + 1;
+        long validLength = 0;
+        for (long logGeneration : logGenerations()) {
+            if (logGeneration <= snapshotGeneration) {
+                Files.deleteIfExists(logFile(logGeneration).toPath()); // Already in the snapshot
+            } else {
+                generation = logGeneration;
+                validLength = replay(logFile(logGeneration), replay);
+            }
+        }
+
+        log = FileChannel.open(logFile(generation).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        log.truncate(validLength); // Drop a record torn by a crash
+        log.position(validLength);
+
+        flusher = daemon(this::flushLoop, "student-journal-flusher");
+        flusher.start();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Generation of a snapshot, read from its first line (0 for a file without one)
+    static long snapshotGeneration(String firstLine) {
+        if (firstLine != null && firstLine.startsWith(GENERATION_HEADER)) {
+            try {
+                return Long.parseLong(firstLine.substring(GENERATION_HEADER.length()).trim());
+            } catch (NumberFormatException e) {
+                // Not a header written by the journal
+            }
+        }
+        return 0;
+    }
+
+    private File logFile(long logGeneration) {
+        return new File(dataFile.getAbsoluteFile().getParentFile(),
+                String.format("%s-%06d.log", baseName(), logGeneration));
+    }
+
+    private String baseName() {
+        String name = dataFile.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    // Generations of the existing logs, oldest first
+    private List<Long> logGenerations() {
+        List<Long> generations = new ArrayList<>();
+        String prefix = baseName() + "-";
+        File[] files = dataFile.getAbsoluteFile().getParentFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(prefix) && name.endsWith(".log")) {
+                    try {
+                        generations.add(Long.parseLong(name.substring(prefix.length(), name.length() - 4)));
+                    } catch (NumberFormatException e) {
+                        // Some other file
+                    }
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    // Apply the records of one log; returns the length of its valid part
+    private static long replay(File file, Replay replay) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 8) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start;
+            }
+            crc.reset();
+            crc.update(bytes, buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length));
+            try {
+                byte type = in.readByte();
+                if (type == ADDED) {
+                    replay.added(readStudent(in));
+                } else if (type == EDITED) {
+                    int oldRollNumber = in.readInt();
+                    replay.edited(oldRollNumber, readStudent(in));
+                } else if (type == REMOVED) {
+                    replay.removed(in.readInt());
+                } else {
+                    return start;
+                }
+            } catch (EOFException e) {
+                return start;
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    private static Student readStudent(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        int rollNumber = in.readInt();
+        String grade = in.readUTF();
+        return new Student(name, rollNumber, grade);
+    }
+
+    // The changes are queued in the order they are logged; each method returns the
+    // sequence number to pass to sync(), so the caller can wait without holding its own locks
+    public long added(Student student) {
+        return append(ADDED, 0, student);
+    }
+
+    public long edited(int oldRollNumber, Student student) {
+        return append(EDITED, oldRollNumber, student);
+    }
+
+    public long removed(int rollNumber) {
+        return append(REMOVED, rollNumber, null);
+    }
+
+    // Wait until the change with the sequence number (and every change before it) is on disk
+    public void sync(long sequence) {
+        synchronized (lock) {
+            awaitDurable(sequence);
+        }
+    }
+
+    // Queue one record for the flusher; returns its sequence number
+    private long append(byte type, int rollNumber, Student student) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            out.writeByte(type);
+            if (type != ADDED) {
+                out.writeInt(rollNumber);
+            }
+            if (student != null) {
+                out.writeUTF(student.getName());
+                out.writeInt(student.getRollNumber());
+                out.writeUTF(student.getGrade());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen for an in-memory stream
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        synchronized (lock) {
+            checkOpen();
+            writeInt(pending, bytes.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.write(bytes, 0, bytes.length);
+            recordsSinceSnapshot++;
+            lock.notifyAll();
+            return ++appendedCount;
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    // Wait (holding lock) until the first sequence records are on disk
+    private void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        while (durableCount < sequence && failure == null) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true; // The record is already queued; finish waiting for it
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Could not write journal", failure);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Could not write journal", failure);
+        }
+    }
+
+    // Write and fsync everything appended so far, in one batch per round
+    private void flushLoop() {
+        while (true) {
+            byte[] batch;
+            long batchEnd;
+            FileChannel channel;
+            synchronized (lock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) {
+                    return; // Closed and nothing left to write
+                }
+                batch = pending.toByteArray();
+                pending.reset();
+                batchEnd = appendedCount;
+                channel = log;
+            }
+
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                synchronized (lock) {
+                    durableCount = batchEnd;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // Whether enough changes were logged that the owner should call compact()
+    public boolean needsCompaction() {
+        synchronized (lock) {
+            return recordsSinceSnapshot >= COMPACT_AFTER_RECORDS && (compaction == null || compaction.isDone());
+        }
+    }
+
+    // Start a new log and write the given students (the state after every change
+    // logged so far) as the new snapshot in the background
+    public Future<?> compact(List<Student> students) {
+        long snapshotGeneration;
+        synchronized (lock) {
+            checkOpen();
+            while (durableCount < appendedCount) {
+                awaitDurable(appendedCount); // Everything logged so far goes to the old log
+            }
+            try {
+                FileChannel next = FileChannel.open(logFile(generation + 1).toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                log.close();
+                log = next;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start a new journal", e);
+            }
+            snapshotGeneration = generation++;
+            recordsSinceSnapshot = 0;
+            compaction = compactor.submit(() -> {
+                writeSnapshot(students, snapshotGeneration);
+                return null;
+            });
+            return compaction;
+        }
+    }
+
+    private void writeSnapshot(List<Student> students, long snapshotGeneration) throws IOException {
+        // Write next to the old snapshot and replace it in one step, so a crash leaves one or the other
+        File temporary = new File(dataFile.getAbsoluteFile().getParentFile(), dataFile.getName() + ".tmp");
+        snapshotWriter.write(students, snapshotGeneration, temporary);
+        Files.move(temporary.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        for (long logGeneration : logGenerations()) {
+            if (logGeneration <= snapshotGeneration) {
+                Files.deleteIfExists(logFile(logGeneration).toPath());
+            }
+        }
+    }
+
+    // Whether a name or grade can be written to a text snapshot; a comma or line
+    // break in it would split its line differently when the snapshot is read
+    static boolean fitsText(String field) {
+        return field.indexOf(',') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0;
+    }
+
+    // Snapshot in the students.txt format, with the generation in a comment line
+    static void writeText(List<Student> students, long generation, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder text = new StringBuilder(GENERATION_HEADER).append(generation).append(System.lineSeparator());
+            for (Student student : students) {
+                text.append(student.getName()).append(',').append(student.getRollNumber()).append(',')
+                        .append(student.getGrade()).append(System.lineSeparator());
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    // Write the remaining changes and stop the background threads
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+            compactor.shutdown();
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            log.close();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
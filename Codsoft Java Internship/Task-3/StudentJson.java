@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// StudentJson class to read and write the JSON used by StudentHttpServer.
+// Only what the API needs is supported: objects become Maps, arrays Lists,
+// strings Strings, numbers Longs (or Doubles if they have a fraction or
+// exponent), and true, false and null the matching Java values.
+class StudentJson {
+    private final String text;
+    private int position;
+
+    private StudentJson(String text) {
+        this.text = text;
+    }
+
+    // Parse one JSON value; throws IllegalArgumentException if the text is not valid JSON
+    public static Object parse(String text) {
+        StudentJson parser = new StudentJson(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("Unexpected text after the value");
+        }
+        return value;
+    }
+
+    // A student as {"name":...,"rollNumber":...,"grade":...}
+    public static void appendStudent(StringBuilder json, Student student) {
+        json.append("{\"name\":");
+        appendString(json, student.getName());
+        json.append(",\"rollNumber\":").append(student.getRollNumber()).append(",\"grade\":");
+        appendString(json, student.getGrade());
+        json.append('}');
+    }
+
+    // Read a student from an object with the same fields; throws IllegalArgumentException
+    // if one is missing, or if it could not be stored in students.txt
+    public static Student toStudent(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected a student object");
+        }
+        Map<?, ?> fields = (Map<?, ?>) value;
+        Object name = fields.get("name");
+        Object rollNumber = fields.get("rollNumber");
+        Object grade = fields.get("grade");
+        if (!(name instanceof String) || ((String) name).trim().isEmpty()
+                || !(grade instanceof String) || ((String) grade).trim().isEmpty()) {
+            throw new IllegalArgumentException("A student needs a name and a grade");
+        }
+        if (!StudentJournal.fitsText((String) name) || !StudentJournal.fitsText((String) grade)) {
+            throw new IllegalArgumentException("Names and grades cannot contain commas or line breaks");
+        }
+        return new Student(((String) name).trim(), toRollNumber(rollNumber), ((String) grade).trim());
+    }
+
+    public static int toRollNumber(Object value) {
+        if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+            throw new IllegalArgumentException("Invalid Roll Number: " + value);
+        }
+        return ((Long) value).intValue();
+    }
+
+    public static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position == text.length()) {
+            throw error("Unexpected end of text");
+        }
+        char c = text.charAt(position);
+        if (c == '{') {
+            return readObject();
+        } else if (c == '[') {
+            return readArray();
+        } else if (c == '"') {
+            return readString();
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            return readNumber();
+        } else if (text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        } else if (text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        } else if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        throw error("Unexpected character '" + c + "'");
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++; // '{'
+        skipWhitespace();
+        if (consume('}')) {
+            return object;
+        }
+        do {
+            skipWhitespace();
+            if (position == text.length() || text.charAt(position) != '"') {
+                throw error("Expected a field name");
+            }
+            String name = readString();
+            skipWhitespace();
+            if (!consume(':')) {
+                throw error("Expected ':'");
+            }
+            object.put(name, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume('}')) {
+            throw error("Expected ',' or '}'");
+        }
+        return object;
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        position++; // '['
+        skipWhitespace();
+        if (consume(']')) {
+            return array;
+        }
+        do {
+            array.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume(']')) {
+            throw error("Expected ',' or ']'");
+        }
+        return array;
+    }
+
+    private String readString() {
+        StringBuilder value = new StringBuilder();
+        position++; // '"'
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            } else if (c != '\\') {
+                value.append(c);
+            } else if (position < text.length()) {
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw error("Invalid escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escaped); // '"', '\\' and '/'
+                }
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readNumber() {
+        int start = position;
+        boolean integer = true;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            integer &= Character.isDigit(text.charAt(position)) || (position == start && text.charAt(position) == '-');
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            return integer ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number " + number);
+        }
+    }
+
+    private boolean consume(char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position);
+    }
+}
@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+// StudentLoadGenerator class to measure StudentHttpServer on localhost.
+// A number of clients send requests back to back for a fixed time, each over
+// its own kept-alive connection: mostly lookups by roll number, the rest
+// adds, edits and removes of students in a range of roll numbers of its own.
+// The latencies of all requests are reported as percentiles.
+//
+// Usage: java StudentLoadGenerator [port] [clients] [seconds] [write percentage]
+class StudentLoadGenerator {
+    // Roll numbers used by each client, starting at FIRST_ROLL_NUMBER + client * ROLL_NUMBERS_PER_CLIENT
+    private static final int FIRST_ROLL_NUMBER = 1_000_000_000;
+    private static final int ROLL_NUMBERS_PER_CLIENT = 10_000;
+
+    private final String baseUri;
+    private final long endTime;
+    private final int writePercentage;
+    private final AtomicLong errors = new AtomicLong();
+
+    public StudentLoadGenerator(int port, long endTime, int writePercentage) {
+        this.baseUri = "http://localhost:" + port + "/students";
+        this.endTime = endTime;
+        this.writePercentage = writePercentage;
+    }
+
+    // Send requests until the end time; returns the latency of each in nanoseconds
+    private long[] runClient(int client) throws IOException, InterruptedException {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Random random = new Random(client);
+        int firstRollNumber = FIRST_ROLL_NUMBER + client * ROLL_NUMBERS_PER_CLIENT;
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < endTime) {
+            int rollNumber = firstRollNumber + random.nextInt(ROLL_NUMBERS_PER_CLIENT);
+            HttpRequest request;
+            if (random.nextInt(100) >= writePercentage) {
+                request = HttpRequest.newBuilder(URI.create(baseUri + "/" + rollNumber)).GET().build();
+            } else {
+                String student = "{\"name\":\"Student " + rollNumber + "\",\"rollNumber\":" + rollNumber
+                        + ",\"grade\":\"" + (char) ('A' + random.nextInt(5)) + "\"}";
+                switch (random.nextInt(3)) {
+                    case 0:
+                        request = HttpRequest.newBuilder(URI.create(baseUri))
+                                .POST(HttpRequest.BodyPublishers.ofString(student)).build();
+                        break;
+                    case 1:
+                        request = HttpRequest.newBuilder(URI.create(baseUri + "/" + rollNumber))
+                                .PUT(HttpRequest.BodyPublishers.ofString(student)).build();
+                        break;
+                    default:
+                        request = HttpRequest.newBuilder(URI.create(baseUri + "/" + rollNumber)).DELETE().build();
+                }
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - start;
+            if (response.statusCode() >= 500) {
+                errors.incrementAndGet(); // 404 and 409 are expected, the student may (not) exist
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int writePercentage = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        StudentLoadGenerator generator = new StudentLoadGenerator(port,
+                System.nanoTime() + seconds * 1_000_000_000L, writePercentage);
+        long[][] results = new long[clients][];
+        Thread[] threads = new Thread[clients];
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    results[client] = generator.runClient(client);
+                } catch (IOException e) {
+                    System.err.println("Client " + client + " stopped: " + e);
+                    results[client] = new long[0];
+                } catch (InterruptedException e) {
+                    results[client] = new long[0];
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] latencies = Arrays.stream(results).flatMapToLong(Arrays::stream).toArray();
+        if (latencies.length == 0) {
+            System.out.println("No requests completed; is StudentHttpServer running on port " + port + "?");
+            return;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%d requests in %d s (%.0f/s), %d server errors%n",
+                latencies.length, seconds, (double) latencies.length / seconds, generator.errors.get());
+        System.out.printf("latency ms: p50 %.3f  p90 %.3f  p99 %.3f  max %.3f%n",
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                latencies[latencies.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,634 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// StudentManagementSystem class to manage the collection of students.
+// The students are kept in a StudentTable (parallel arrays, not one object per
+// student); a list of table rows gives their order. Students are found by
+// roll number through a hash index of their positions in that list, so
+// search, remove and edit do not scan it. Removed students leave a hole (-1)
+// and edited ones an unused table row; both are cleaned up once there are
+// many of them, so removing does not shift the students after it either.
+// Every change is written to a journal, and waited for, before it is applied,
+// so nothing is lost if the application is not closed normally and no one
+// sees a change that is not on disk yet. The students are stored in
+// students.txt, or in the binary students.dat if it exists (see StudentRecordStore).
+// Students can also be looked up by grade and by the start of their name;
+// those indexes are built on the first such query and kept up to date after that.
+// Statistics about all students (see RosterStatistics) are updated on every change.
+// The system can be used from any number of threads: changes take a write
+// lock and lookups a read lock, and getAllStudents() hands out an immutable
+// snapshot that is only copied again after a change, so reading or saving
+// all students never holds a lock while it runs. A change is logged under the
+// write lock but waits for the disk without it, so the changes of other
+// threads join the same fsync; meanwhile its roll numbers are claimed, and
+// changes to them wait until it is applied.
+class StudentManagementSystem {
+    private StudentTable table;
+    private int[] rows = new int[64]; // Position -> row of table, -1 once removed
+    private int positionCount;
+    private RollNumberIndex rollNumberIndex; // Roll number -> position in rows
+    private int removedCount; // Holes left in rows by removeStudent
+    private File dataFile; // The file to store student data
+    private StudentJournal.SnapshotWriter dataFileWriter; // Writes dataFile in its format
+    private StudentJournal journal; // Null if the journal could not be opened
+    private List<String> loadProblems = new ArrayList<>(); // Lines of the file that were skipped
+    private volatile GradeIndex gradeIndex; // Null until the first search by grade or name
+    private NamePrefixTrie nameIndex;
+    private final RosterStatistics statistics = new RosterStatistics();
+    private final Set<Integer> claimedRollNumbers = new HashSet<>(); // Of changes logged but not applied yet
+    private boolean compacting; // No change is logged while the journal is compacted
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // Guards everything above
+    private final Condition settled = lock.writeLock().newCondition(); // Claims released or compaction done
+    private volatile List<Student> snapshot; // Returned by getAllStudents(), null after a change
+
+    public StudentManagementSystem() {
+        table = new StudentTable();
+        rollNumberIndex = new RollNumberIndex();
+        File recordFile = new File("students.dat");
+        long generation;
+        if (recordFile.exists()) {
+            dataFile = recordFile;
+            dataFileWriter = StudentRecordStore::write;
+            generation = loadRecords();
+        } else {
+            dataFile = new File("students.txt");
+            dataFileWriter = StudentJournal::writeText;
+            generation = loadStudents(); // Load students from the file when the system is initialized
+        }
+        openJournal(generation);
+    }
+
+    // Replay the changes made since the file was written and log the ones to come
+    private void openJournal(long generation) {
+        try {
+            journal = new StudentJournal(dataFile, generation, dataFileWriter, new StudentJournal.Replay() {
+                @Override
+                public void added(Student student) {
+                    if (!rollNumberIndex.contains(student.getRollNumber())) {
+                        insert(student);
+                    }
+                }
+
+                @Override
+                public void edited(int oldRollNumber, Student student) {
+                    int position = rollNumberIndex.get(oldRollNumber);
+                    if (position >= 0 && (student.getRollNumber() == oldRollNumber
+                            || !rollNumberIndex.contains(student.getRollNumber()))) {
+                        replace(position, student);
+                    }
+                }
+
+                @Override
+                public void removed(int rollNumber) {
+                    int position = rollNumberIndex.get(rollNumber);
+                    if (position >= 0) {
+                        delete(position);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            // Without a journal, changes are only saved by saveStudents()
+            e.printStackTrace();
+        }
+    }
+
+    // Add a student; returns false (and adds nothing) if the roll number is already taken.
+    // The system keeps a copy of the student's fields, not the object.
+    public boolean addStudent(Student student) {
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            awaitUnclaimed(student.getRollNumber());
+            if (rollNumberIndex.contains(student.getRollNumber())) {
+                return false;
+            }
+            if (journal != null) {
+                sequence = journal.added(student);
+            }
+            claimedRollNumbers.add(student.getRollNumber());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(sequence, () -> insert(student), student.getRollNumber());
+        return true;
+    }
+
+    public void removeStudent(Student student) {
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            awaitUnclaimed(student.getRollNumber());
+            int position = rollNumberIndex.get(student.getRollNumber());
+            if (position < 0 || !table.matches(rows[position], student)) {
+                return; // Not in the system, or changed since it was looked up
+            }
+            if (journal != null) {
+                sequence = journal.removed(student.getRollNumber());
+            }
+            claimedRollNumbers.add(student.getRollNumber());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(sequence, () -> delete(rollNumberIndex.get(student.getRollNumber())), student.getRollNumber());
+    }
+
+    // Add many students, waiting for the disk only once; students whose roll number
+    // is already taken (also by an earlier one of the list) are skipped.
+    // Returns how many were added.
+    public int addStudents(List<Student> newStudents) {
+        return applyBatch(new int[0], newStudents).getAddedCount();
+    }
+
+    // Remove the students with the roll numbers like addStudents(); returns how many were removed
+    public int removeStudents(int[] rollNumbers) {
+        return applyBatch(rollNumbers, Collections.emptyList()).getRemovedCount();
+    }
+
+    // How many students a batch removed and added
+    static class BatchResult {
+        private final int removedCount;
+        private final int addedCount;
+
+        BatchResult(int removedCount, int addedCount) {
+            this.removedCount = removedCount;
+            this.addedCount = addedCount;
+        }
+
+        public int getRemovedCount() {
+            return removedCount;
+        }
+
+        public int getAddedCount() {
+            return addedCount;
+        }
+    }
+
+    // Remove and then add students as one change: under one write lock and with one wait
+    // for the disk, so no other change comes in between. Students can be replaced by
+    // removing and adding the same roll numbers; otherwise a student is only added if its
+    // roll number is free, like addStudents().
+    public BatchResult applyBatch(int[] toRemove, List<Student> toAdd) {
+        int[] involved = Arrays.copyOf(toRemove, toRemove.length + toAdd.size());
+        for (int i = 0; i < toAdd.size(); i++) {
+            involved[toRemove.length + i] = toAdd.get(i).getRollNumber();
+        }
+
+        Set<Integer> removed = new HashSet<>();
+        Set<Integer> added = new HashSet<>();
+        List<Student> adding = new ArrayList<>();
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            awaitUnclaimed(involved);
+            for (int rollNumber : toRemove) {
+                if (rollNumberIndex.contains(rollNumber) && removed.add(rollNumber) && journal != null) {
+                    sequence = journal.removed(rollNumber);
+                }
+            }
+            for (Student student : toAdd) {
+                int rollNumber = student.getRollNumber();
+                if ((!rollNumberIndex.contains(rollNumber) || removed.contains(rollNumber)) && added.add(rollNumber)) {
+                    adding.add(student);
+                    if (journal != null) {
+                        sequence = journal.added(student);
+                    }
+                }
+            }
+            claimedRollNumbers.addAll(removed);
+            claimedRollNumbers.addAll(added);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int[] claimed = Stream.concat(removed.stream(), added.stream()).mapToInt(Integer::intValue).toArray();
+        commit(sequence, () -> {
+            for (int rollNumber : removed) {
+                delete(rollNumberIndex.get(rollNumber));
+            }
+            for (Student student : adding) {
+                insert(student);
+            }
+        }, claimed);
+        return new BatchResult(removed.size(), adding.size());
+    }
+
+    // Wait (holding the write lock) until no compaction runs and no logged change
+    // that is still to be applied involves the roll numbers
+    private void awaitUnclaimed(int... rollNumbers) {
+        boolean claimed = true;
+        while (claimed) {
+            claimed = compacting;
+            for (int i = 0; i < rollNumbers.length && !claimed; i++) {
+                claimed = claimedRollNumbers.contains(rollNumbers[i]);
+            }
+            if (claimed) {
+                settled.awaitUninterruptibly();
+            }
+        }
+    }
+
+    // Wait for a logged change to reach the disk, then apply it and release its roll
+    // numbers. The wait is done without the write lock, so the changes of other threads
+    // can join the same fsync. If the journal cannot be written, the change is not
+    // applied and the error is passed on.
+    private void commit(long sequence, Runnable apply, int... rollNumbers) {
+        RuntimeException failure = null;
+        try {
+            if (sequence > 0) {
+                journal.sync(sequence);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        lock.writeLock().lock();
+        try {
+            try {
+                if (failure == null) {
+                    apply.run();
+                }
+            } finally {
+                for (int rollNumber : rollNumbers) {
+                    claimedRollNumbers.remove(rollNumber);
+                }
+                settled.signalAll();
+            }
+            if (failure == null) {
+                compactJournalIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public Student searchStudent(int rollNumber) {
+        lock.readLock().lock();
+        try {
+            int position = rollNumberIndex.get(rollNumber);
+            return position < 0 ? null : table.studentAt(rows[position]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lines of the data file that could not be loaded, with their line numbers
+    public List<String> getLoadProblems() {
+        return Collections.unmodifiableList(loadProblems);
+    }
+
+    // All students as of the last change; the list never changes, so it can be read
+    // for as long as needed while other threads keep changing the system
+    public List<Student> getAllStudents() {
+        List<Student> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                // Table rows never change, so the snapshot only needs the row numbers
+                int[] liveRows = new int[positionCount - removedCount];
+                int count = 0;
+                for (int position = 0; position < positionCount; position++) {
+                    if (rows[position] >= 0) {
+                        liveRows[count++] = rows[position];
+                    }
+                }
+                current = table.asList(liveRows);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of students, per grade and range of roll numbers, as of the last change;
+    // does not go over the students
+    public RosterStatistics getStatistics() {
+        lock.readLock().lock();
+        try {
+            return statistics.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Students with the grade, by roll number. Only the roll numbers are copied
+    // up front; students changed or removed by the time they are reached are
+    // returned as they are then, or skipped.
+    public Stream<Student> searchByGrade(String grade) {
+        int[] rollNumbers;
+        buildSecondaryIndexes();
+        lock.readLock().lock();
+        try {
+            rollNumbers = gradeIndex.rollNumbers(grade).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return lookUp(rollNumbers);
+    }
+
+    public int countByGrade(String grade) {
+        buildSecondaryIndexes();
+        lock.readLock().lock();
+        try {
+            return gradeIndex.count(grade);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Students whose name starts with the prefix (ignoring case), by name; like searchByGrade()
+    public Stream<Student> searchByNamePrefix(String prefix) {
+        int[] rollNumbers;
+        buildSecondaryIndexes();
+        lock.readLock().lock();
+        try {
+            rollNumbers = nameIndex.rollNumbersWithPrefix(prefix).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return lookUp(rollNumbers);
+    }
+
+    private Stream<Student> lookUp(int[] rollNumbers) {
+        return Arrays.stream(rollNumbers).mapToObj(this::searchStudent).filter(Objects::nonNull);
+    }
+
+    // Index every student by grade and name; only done once, since changes update the indexes
+    private void buildSecondaryIndexes() {
+        if (gradeIndex != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (gradeIndex == null) {
+                GradeIndex grades = new GradeIndex();
+                nameIndex = new NamePrefixTrie();
+                for (int position = 0; position < positionCount; position++) {
+                    if (rows[position] >= 0) {
+                        Student student = table.studentAt(rows[position]);
+                        grades.add(student.getGrade(), student.getRollNumber());
+                        nameIndex.add(student.getName(), student.getRollNumber());
+                    }
+                }
+                gradeIndex = grades; // Published last, once both indexes are complete
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addToSecondaryIndexes(Student student) {
+        if (gradeIndex != null) {
+            gradeIndex.add(student.getGrade(), student.getRollNumber());
+            nameIndex.add(student.getName(), student.getRollNumber());
+        }
+    }
+
+    private void removeFromSecondaryIndexes(Student student) {
+        if (gradeIndex != null) {
+            gradeIndex.remove(student.getGrade(), student.getRollNumber());
+            nameIndex.remove(student.getName(), student.getRollNumber());
+        }
+    }
+
+    private void insert(Student student) {
+        insertRow(table.add(student));
+    }
+
+    // Give a row just added to the table the next position
+    private void insertRow(int row) {
+        if (positionCount == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        rows[positionCount] = row;
+        rollNumberIndex.put(table.rollNumberAt(row), positionCount++);
+        statistics.added(table.rollNumberAt(row), table.gradeAt(row));
+        if (gradeIndex != null) {
+            addToSecondaryIndexes(table.studentAt(row));
+        }
+        snapshot = null;
+    }
+
+    private void delete(int position) {
+        Student student = table.studentAt(rows[position]);
+        removeFromSecondaryIndexes(student);
+        rollNumberIndex.remove(student.getRollNumber());
+        statistics.removed(student.getRollNumber(), student.getGrade());
+        rows[position] = -1;
+        removedCount++;
+        snapshot = null;
+        compactIfNeeded();
+    }
+
+    // The new student gets a new row, keeping the position of the old one
+    private void replace(int position, Student newStudent) {
+        Student oldStudent = table.studentAt(rows[position]);
+        removeFromSecondaryIndexes(oldStudent);
+        addToSecondaryIndexes(newStudent);
+        statistics.edited(oldStudent.getRollNumber(), oldStudent.getGrade(), newStudent.getRollNumber(),
+                newStudent.getGrade());
+        if (newStudent.getRollNumber() != oldStudent.getRollNumber()) {
+            rollNumberIndex.remove(oldStudent.getRollNumber());
+            rollNumberIndex.put(newStudent.getRollNumber(), position);
+        }
+        rows[position] = table.add(newStudent);
+        snapshot = null;
+        compactIfNeeded();
+    }
+
+    // Keep the unused rows and holes from outgrowing the students
+    private void compactIfNeeded() {
+        int liveCount = positionCount - removedCount;
+        if (table.size() - liveCount > liveCount) {
+            compact();
+        }
+    }
+
+    // Copy the students into a new table without unused rows and close the
+    // holes left by removed students, keeping the order of the others.
+    // Views and snapshots of the old table stay valid.
+    private void compact() {
+        StudentTable compacted = new StudentTable(positionCount - removedCount);
+        int kept = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (rows[position] >= 0) {
+                rows[kept] = compacted.copyRow(table, rows[position]);
+                rollNumberIndex.put(compacted.rollNumberAt(rows[kept]), kept);
+                kept++;
+            }
+        }
+        table = compacted;
+        positionCount = kept;
+        removedCount = 0;
+    }
+
+    // Fold the journal into a new students.txt in the background once it has grown long
+    private void compactJournalIfNeeded() {
+        if (journal != null && !compacting && journal.needsCompaction()) {
+            compactJournal();
+        }
+    }
+
+    // Start a new log and write the students to the snapshot (holding the write lock).
+    // The snapshot must include every change in the old log, so the changes still
+    // waiting for the disk are applied first, and no new ones are logged meanwhile.
+    private Future<?> compactJournal() {
+        while (compacting) {
+            settled.awaitUninterruptibly();
+        }
+        compacting = true;
+        try {
+            while (!claimedRollNumbers.isEmpty()) {
+                settled.awaitUninterruptibly();
+            }
+            return journal.compact(getAllStudents());
+        } finally {
+            compacting = false;
+            settled.signalAll();
+        }
+    }
+
+    // Method to read the binary record file; names are copied into the table
+    // still encoded, so no String is made per student. The file is not kept
+    // mapped: that would save the copy, but a mapped file cannot be replaced
+    // on every platform, and saving replaces it. Returns the journal
+    // generation the file includes.
+    private long loadRecords() {
+        try (StudentRecordStore recordStore = new StudentRecordStore(dataFile)) {
+            table = new StudentTable(recordStore.size(), recordStore.getNameBytes());
+            for (int record = 0; record < recordStore.size(); record++) {
+                int rollNumber = recordStore.rollNumberAt(record);
+                if (!rollNumberIndex.contains(rollNumber)) {
+                    insertRow(table.add(rollNumber, recordStore.nameBytesAt(record), recordStore.gradeAt(record)));
+                }
+            }
+            return recordStore.getGeneration();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    // Method to load students from the file, parsing it on all cores; returns the journal generation it includes
+    private long loadStudents() {
+        long generation = 0;
+        if (dataFile.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(dataFile))) {
+                generation = StudentJournal.snapshotGeneration(reader.readLine());
+                StudentTextLoader loader = new StudentTextLoader(dataFile);
+                loader.load();
+                loadProblems.addAll(loader.getProblems());
+                for (Student student : loader.getStudents()) {
+                    if (rollNumberIndex.contains(student.getRollNumber())) {
+                        loadProblems.add("Skipping duplicate Roll Number " + student.getRollNumber());
+                    } else {
+                        insert(student);
+                    }
+                }
+                for (String problem : loadProblems) {
+                    System.err.println(dataFile + ": " + problem);
+                }
+            } catch (IOException e) {
+                // Error occurred while reading the file
+                // You can handle the exception according to your requirement
+                e.printStackTrace();
+            }
+        }
+        return generation;
+    }
+
+    // Method to save students to the file
+    public void saveStudents() {
+        if (journal != null) {
+            // Write a snapshot of all students and wait for it
+            Future<?> compaction;
+            lock.writeLock().lock();
+            try {
+                compaction = compactJournal();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                compaction.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+            return;
+        }
+
+        // Replace the file instead of overwriting it, since students.dat may still be mapped
+        File temporary = new File(dataFile.getPath() + ".tmp");
+        try {
+            dataFileWriter.write(getAllStudents(), 0, temporary);
+            java.nio.file.Files.move(temporary.toPath(), dataFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Error occurred while writing the file
+            // You can handle the exception according to your requirement
+            e.printStackTrace();
+        }
+    }
+
+    // Method to write the last changes to disk when the application exits
+    public void close() {
+        if (journal == null) {
+            saveStudents();
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Additional methods for searching, removing, and editing students
+    // Replace a student; returns false if it is not in the system or the new roll number is already taken
+    public boolean editStudent(Student oldStudent, Student newStudent) {
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            awaitUnclaimed(oldStudent.getRollNumber(), newStudent.getRollNumber());
+            int position = rollNumberIndex.get(oldStudent.getRollNumber());
+            if (position < 0 || !table.matches(rows[position], oldStudent)) {
+                return false;
+            }
+            if (newStudent.getRollNumber() != oldStudent.getRollNumber()
+                    && rollNumberIndex.contains(newStudent.getRollNumber())) {
+                return false;
+            }
+            if (journal != null) {
+                sequence = journal.edited(oldStudent.getRollNumber(), newStudent);
+            }
+            claimedRollNumbers.add(oldStudent.getRollNumber());
+            claimedRollNumbers.add(newStudent.getRollNumber());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Positions move when the table is compacted, so the student is looked up again
+        commit(sequence, () -> replace(rollNumberIndex.get(oldStudent.getRollNumber()), newStudent),
+                oldStudent.getRollNumber(), newStudent.getRollNumber());
+        return true;
+    }
+}
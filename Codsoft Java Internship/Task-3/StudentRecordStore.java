@@ -0,0 +1,223 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// StudentRecordStore class to keep the students in a binary file that is
+// read through a memory mapping. Every student is a fixed-width record, so
+// opening the file only checks its header; names and grades are read when a
+// record is accessed. Names can be copied out still encoded (see StudentTable).
+//
+// File layout (big-endian):
+//   header   magic, version, record count, grade count (ints), journal
+//            generation, offset of the grade table, offset of the name heap (longs)
+//   records  per student: roll number, name offset in the heap, name length
+//            in bytes (ints), grade code (3 bytes, lowest first), 1 unused byte
+//   grades   per grade code: length (unsigned short) and UTF-8 bytes
+//
+// Version 1 files had a one-byte grade code followed by 3 zero bytes, so
+// they read the same way.
+//   names    UTF-8 bytes of all names, back to back
+//
+// Convert an existing students.txt with: java StudentRecordStore students.txt students.dat
+class StudentRecordStore implements Closeable {
+    static final int MAGIC = 0x53544442; // "STDB"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 40;
+    static final int RECORD_SIZE = 16;
+    private static final int MAX_GRADES = 1 << 24; // Grade codes are three bytes
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int recordCount;
+    private final long generation;
+    private final String[] grades;
+    private final int nameHeapOffset;
+
+    public StudentRecordStore(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Not a student record file: " + file);
+        }
+        data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (data.getInt(0) != MAGIC || data.getInt(4) < 1 || data.getInt(4) > VERSION) {
+            channel.close();
+            throw new IOException("Not a student record file: " + file);
+        }
+        recordCount = data.getInt(8);
+        int gradeCount = data.getInt(12);
+        generation = data.getLong(16);
+        int gradeTableOffset = (int) data.getLong(24);
+        nameHeapOffset = (int) data.getLong(32);
+
+        // The grade table is tiny; decode it once so every student of a grade shares one String
+        grades = new String[gradeCount];
+        int offset = gradeTableOffset;
+        for (int i = 0; i < gradeCount; i++) {
+            int length = data.getShort(offset) & 0xFFFF;
+            grades[i] = decode(offset + 2, length);
+            offset += 2 + length;
+        }
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    // Total length of the names in UTF-8 bytes
+    public long getNameBytes() {
+        return data.capacity() - nameHeapOffset;
+    }
+
+    // Journal generation included in this file (see StudentJournal)
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int rollNumberAt(int record) {
+        return data.getInt(HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    public String nameAt(int record) {
+        return new String(nameBytesAt(record), StandardCharsets.UTF_8);
+    }
+
+    // The UTF-8 bytes of the name
+    public byte[] nameBytesAt(int record) {
+        int position = HEADER_SIZE + record * RECORD_SIZE;
+        byte[] bytes = new byte[data.getInt(position + 8)];
+        data.get(nameHeapOffset + data.getInt(position + 4), bytes);
+        return bytes;
+    }
+
+    public String gradeAt(int record) {
+        int position = HEADER_SIZE + record * RECORD_SIZE + 12;
+        return grades[(data.get(position) & 0xFF) | (data.get(position + 1) & 0xFF) << 8
+                | (data.get(position + 2) & 0xFF) << 16];
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        data.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Write the students to a new record file; fits StudentJournal.SnapshotWriter
+    static void write(List<Student> students, long generation, File file) throws IOException {
+        Map<String, Integer> gradeCodes = new HashMap<>();
+        List<byte[]> gradeBytes = new ArrayList<>();
+        int[] codes = new int[students.size()];
+        byte[][] names = new byte[students.size()][];
+        long nameHeapSize = 0;
+        for (int i = 0; i < students.size(); i++) {
+            Student student = students.get(i);
+            Integer code = gradeCodes.get(student.getGrade());
+            if (code == null) {
+                if (gradeCodes.size() == MAX_GRADES) {
+                    throw new IOException("More than " + MAX_GRADES + " different grades");
+                }
+                byte[] grade = student.getGrade().getBytes(StandardCharsets.UTF_8);
+                if (grade.length > 0xFFFF) {
+                    throw new IOException("Grade longer than " + 0xFFFF + " bytes");
+                }
+                code = gradeCodes.size();
+                gradeCodes.put(student.getGrade(), code);
+                gradeBytes.add(grade);
+            }
+            codes[i] = code;
+            names[i] = student.getName().getBytes(StandardCharsets.UTF_8);
+            nameHeapSize += names[i].length;
+        }
+
+        long gradeTableOffset = HEADER_SIZE + (long) students.size() * RECORD_SIZE;
+        long nameHeapOffset = gradeTableOffset;
+        for (byte[] grade : gradeBytes) {
+            nameHeapOffset += 2 + grade.length;
+        }
+        if (nameHeapOffset + nameHeapSize > Integer.MAX_VALUE) {
+            throw new IOException("Too many students for one record file");
+        }
+
+        FileOutputStream stream = new FileOutputStream(file);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(students.size());
+            out.writeInt(gradeBytes.size());
+            out.writeLong(generation);
+            out.writeLong(gradeTableOffset);
+            out.writeLong(nameHeapOffset);
+
+            int nameOffset = 0;
+            for (int i = 0; i < students.size(); i++) {
+                out.writeInt(students.get(i).getRollNumber());
+                out.writeInt(nameOffset);
+                out.writeInt(names[i].length);
+                out.writeByte(codes[i]);
+                out.writeByte(codes[i] >>> 8);
+                out.writeByte(codes[i] >>> 16);
+                out.writeByte(0);
+                nameOffset += names[i].length;
+            }
+            for (byte[] grade : gradeBytes) {
+                out.writeShort(grade.length);
+                out.write(grade);
+            }
+            for (byte[] name : names) {
+                out.write(name);
+            }
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    // Converter from the students.txt format
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java StudentRecordStore <students.txt> <students.dat>");
+            System.exit(2);
+        }
+        File textFile = new File(args[0]);
+        List<Student> students = new ArrayList<>();
+        RollNumberIndex rollNumbers = new RollNumberIndex();
+        long generation;
+        try (BufferedReader reader = new BufferedReader(new FileReader(textFile))) {
+            String line = reader.readLine();
+            generation = StudentJournal.snapshotGeneration(line); // Keep replaying the same journal
+            for (; line != null; line = reader.readLine()) {
+                String[] parts = line.split(",");
+                if (parts.length == 3) {
+                    int rollNumber = Integer.parseInt(parts[1].trim());
+                    if (rollNumbers.contains(rollNumber)) {
+                        System.err.println("Skipping duplicate Roll Number " + rollNumber);
+                        continue;
+                    }
+                    rollNumbers.put(rollNumber, students.size());
+                    students.add(new Student(parts[0].trim(), rollNumber, parts[2].trim()));
+                }
+            }
+        }
+        write(students, generation, new File(args[1]));
+        System.out.println("Converted " + students.size() + " students to " + args[1]
+                + "; the application now uses it instead of " + textFile.getName());
+    }
+}
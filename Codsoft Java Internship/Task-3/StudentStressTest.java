@@ -0,0 +1,287 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// StudentStressTest class to check StudentManagementSystem under contention.
+// Writer threads add, edit, remove and replace students (one at a time and
+// in batches) in a small range of roll numbers, so they keep running into
+// each other, while reader threads take snapshots, statistics and searches
+// and save the students. Afterwards the indexes are checked against a scan of all
+// students, and the system is opened again to check that replaying the
+// journal gives the same students.
+//
+// The system keeps its files in the current directory, so run this in an
+// empty one; the files are deleted at the end.
+//
+// Usage: java StudentStressTest [writers] [changes per writer] [readers]
+class StudentStressTest {
+    private static final int ROLL_NUMBERS = 2000;
+    private static final String[] NAMES = {"Ann", "anna", "Bob", "Bobby", "Cara", "Dev", "Eve"};
+    private static final String[] GRADES = {"A", "B", "C", "D", "E"};
+
+    private final StudentManagementSystem managementSystem;
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    public StudentStressTest(StudentManagementSystem managementSystem) {
+        this.managementSystem = managementSystem;
+    }
+
+    private void fail(String failure) {
+        if (failures.size() < 20) {
+            failures.add(failure);
+        }
+    }
+
+    private static Student randomStudent(Random random, int rollNumber) {
+        return new Student(NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(100), rollNumber,
+                GRADES[random.nextInt(GRADES.length)]);
+    }
+
+    private void runWriter(int writer, int changes) {
+        Random random = new Random(writer);
+        for (int i = 0; i < changes; i++) {
+            int rollNumber = random.nextInt(ROLL_NUMBERS);
+            switch (random.nextInt(7)) {
+                case 0:
+                case 1:
+                    managementSystem.addStudent(randomStudent(random, rollNumber));
+                    break;
+                case 2: {
+                    Student student = managementSystem.searchStudent(rollNumber);
+                    if (student != null) {
+                        int newRollNumber = random.nextBoolean() ? rollNumber : random.nextInt(ROLL_NUMBERS);
+                        managementSystem.editStudent(student, randomStudent(random, newRollNumber));
+                    }
+                    break;
+                }
+                case 3: {
+                    Student student = managementSystem.searchStudent(rollNumber);
+                    if (student != null) {
+                        managementSystem.removeStudent(student);
+                    }
+                    break;
+                }
+                case 4: {
+                    List<Student> students = new ArrayList<>();
+                    for (int j = 0; j < 10; j++) {
+                        students.add(randomStudent(random, random.nextInt(ROLL_NUMBERS)));
+                    }
+                    managementSystem.addStudents(students);
+                    break;
+                }
+                case 5: {
+                    int[] rollNumbers = new int[10];
+                    for (int j = 0; j < rollNumbers.length; j++) {
+                        rollNumbers[j] = random.nextInt(ROLL_NUMBERS);
+                    }
+                    managementSystem.removeStudents(rollNumbers);
+                    break;
+                }
+                default: {
+                    // Replace some students and add others
+                    int[] rollNumbers = new int[5];
+                    List<Student> students = new ArrayList<>();
+                    for (int j = 0; j < rollNumbers.length; j++) {
+                        rollNumbers[j] = random.nextInt(ROLL_NUMBERS);
+                        students.add(randomStudent(random, random.nextBoolean() ? rollNumbers[j] : random.nextInt(ROLL_NUMBERS)));
+                    }
+                    managementSystem.applyBatch(rollNumbers, students);
+                }
+            }
+        }
+    }
+
+    // Check what each read returns on its own, until the writers are done
+    private void runReader(int reader, Thread[] writers) {
+        Random random = new Random(-1 - reader);
+        int reads = 0;
+        while (isAlive(writers)) {
+            switch (random.nextInt(4)) {
+                case 0: {
+                    List<Student> students = managementSystem.getAllStudents();
+                    Set<Integer> rollNumbers = new TreeSet<>();
+                    for (Student student : students) {
+                        if (!rollNumbers.add(student.getRollNumber())) {
+                            fail("Snapshot has Roll Number " + student.getRollNumber() + " twice");
+                        }
+                    }
+                    break;
+                }
+                case 1: {
+                    RosterStatistics statistics = managementSystem.getStatistics();
+                    int graded = statistics.getGradeCounts().values().stream().mapToInt(Integer::intValue).sum();
+                    if (graded != statistics.getStudentCount()) {
+                        fail("Statistics count " + statistics.getStudentCount() + " students but " + graded + " grades");
+                    }
+                    if (statistics.getMinRollNumber() > statistics.getMaxRollNumber()) {
+                        fail("Statistics range " + statistics.getMinRollNumber() + "-" + statistics.getMaxRollNumber());
+                    }
+                    break;
+                }
+                case 2: {
+                    int rollNumber = random.nextInt(ROLL_NUMBERS);
+                    Student student = managementSystem.searchStudent(rollNumber);
+                    if (student != null && student.getRollNumber() != rollNumber) {
+                        fail("Search for Roll Number " + rollNumber + " found " + student);
+                    }
+                    break;
+                }
+                default:
+                    managementSystem.searchByGrade(GRADES[random.nextInt(GRADES.length)]).count();
+                    managementSystem.searchByNamePrefix(NAMES[random.nextInt(NAMES.length)]).count();
+            }
+            if (++reads % 5000 == 0) {
+                managementSystem.saveStudents();
+            }
+        }
+    }
+
+    private static boolean isAlive(Thread[] threads) {
+        for (Thread thread : threads) {
+            if (thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Check the indexes and the statistics against the students in the snapshot
+    private void checkIndexes() {
+        List<Student> students = managementSystem.getAllStudents();
+        Map<Integer, Student> byRollNumber = new HashMap<>();
+        for (Student student : students) {
+            if (byRollNumber.put(student.getRollNumber(), student) != null) {
+                fail("Roll Number " + student.getRollNumber() + " is in the system twice");
+            }
+        }
+
+        for (int rollNumber = 0; rollNumber < ROLL_NUMBERS; rollNumber++) {
+            Student expected = byRollNumber.get(rollNumber);
+            Student found = managementSystem.searchStudent(rollNumber);
+            if (expected == null ? found != null : found == null || !describe(found).equals(describe(expected))) {
+                fail("Roll number index has " + found + " for Roll Number " + rollNumber + ", expected " + expected);
+            }
+        }
+
+        for (String grade : GRADES) {
+            Set<Integer> expected = students.stream().filter(s -> s.getGrade().equals(grade))
+                    .map(Student::getRollNumber).collect(Collectors.toCollection(TreeSet::new));
+            Set<Integer> found = managementSystem.searchByGrade(grade)
+                    .map(Student::getRollNumber).collect(Collectors.toCollection(TreeSet::new));
+            if (!found.equals(expected) || managementSystem.countByGrade(grade) != expected.size()) {
+                fail("Grade index has " + found.size() + " students with Grade " + grade + ", expected " + expected.size());
+            }
+        }
+
+        for (String name : NAMES) {
+            String prefix = name.toLowerCase(Locale.ROOT);
+            Set<Integer> expected = students.stream()
+                    .filter(s -> s.getName().toLowerCase(Locale.ROOT).startsWith(prefix))
+                    .map(Student::getRollNumber).collect(Collectors.toCollection(TreeSet::new));
+            Set<Integer> found = managementSystem.searchByNamePrefix(name)
+                    .map(Student::getRollNumber).collect(Collectors.toCollection(TreeSet::new));
+            if (!found.equals(expected)) {
+                fail("Name index has " + found.size() + " students named " + name + "..., expected " + expected.size());
+            }
+        }
+
+        RosterStatistics statistics = managementSystem.getStatistics();
+        Map<String, Integer> gradeCounts = new TreeMap<>();
+        for (Student student : students) {
+            gradeCounts.merge(student.getGrade(), 1, Integer::sum);
+        }
+        int min = byRollNumber.keySet().stream().mapToInt(Integer::intValue).min().orElse(0);
+        int max = byRollNumber.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        if (statistics.getStudentCount() != students.size() || !statistics.getGradeCounts().equals(gradeCounts)
+                || statistics.getMinRollNumber() != min || statistics.getMaxRollNumber() != max) {
+            fail("Statistics " + statistics.getStudentCount() + " " + statistics.getGradeCounts() + " "
+                    + statistics.getMinRollNumber() + "-" + statistics.getMaxRollNumber() + ", expected "
+                    + students.size() + " " + gradeCounts + " " + min + "-" + max);
+        }
+    }
+
+    private static String describe(Student student) {
+        return student.getRollNumber() + "," + student.getName() + "," + student.getGrade();
+    }
+
+    private static Set<String> describeAll(List<Student> students) {
+        return students.stream().map(StudentStressTest::describe).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    // The files of the system in the current directory
+    private static File[] dataFiles() {
+        File[] files = new File(".").listFiles((dir, name) -> name.startsWith("students"));
+        return files == null ? new File[0] : files;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int writerCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int changes = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int readerCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        if (dataFiles().length > 0) {
+            System.out.println("Found " + Arrays.toString(dataFiles()) + "; run this in an empty directory");
+            System.exit(2);
+        }
+
+        StudentManagementSystem managementSystem = new StudentManagementSystem();
+        StudentStressTest test = new StudentStressTest(managementSystem);
+        long start = System.nanoTime();
+        Thread[] writers = new Thread[writerCount];
+        for (int i = 0; i < writerCount; i++) {
+            int writer = i;
+            writers[i] = new Thread(() -> test.runWriter(writer, changes));
+        }
+        Thread[] readers = new Thread[readerCount];
+        for (int i = 0; i < readerCount; i++) {
+            int reader = i;
+            readers[i] = new Thread(() -> test.runReader(reader, writers));
+        }
+        for (Thread thread : writers) {
+            thread.start();
+        }
+        for (Thread thread : readers) {
+            thread.start();
+        }
+        for (Thread thread : writers) {
+            thread.join();
+        }
+        for (Thread thread : readers) {
+            thread.join();
+        }
+        System.out.printf(Locale.ROOT, "%d writers made %d changes each in %.1f s; %d students left%n", writerCount,
+                changes, (System.nanoTime() - start) / 1e9, managementSystem.getAllStudents().size());
+
+        test.checkIndexes();
+        Set<String> before = describeAll(managementSystem.getAllStudents());
+        managementSystem.close();
+        StudentManagementSystem reopened = new StudentManagementSystem();
+        Set<String> after = describeAll(reopened.getAllStudents());
+        if (!after.equals(before)) {
+            Set<String> missing = new TreeSet<>(before);
+            missing.removeAll(after);
+            test.fail("Replaying the journal gives " + after.size() + " students, expected " + before.size()
+                    + "; missing " + missing.stream().limit(5).collect(Collectors.toList()));
+        }
+        reopened.close();
+        for (File file : dataFiles()) {
+            file.delete();
+        }
+
+        if (test.failures.isEmpty()) {
+            System.out.println("All checks passed");
+        } else {
+            test.failures.forEach(System.out::println);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+// StudentTable class to keep students in parallel arrays instead of one
+// object (plus a name and a grade String) per student: roll numbers in an
+// int array, grades as one-byte codes into a table of the distinct grades,
+// and names as UTF-8 bytes in one shared byte array. Student objects are
+// only created as light views of a row when they are asked for.
+//
+// Rows are only ever appended: an edited student gets a new row and a
+// removed one keeps its row, so a view always shows the student as it was
+// when the view was made, and threads can read rows while another appends.
+// The owner rebuilds the table (see copyRow) once too many rows are unused.
+class StudentTable {
+    private static final int INITIAL_CAPACITY = 64;
+    // Grade codes 0 to 254 index the grade table; rows with code 255 keep their grade in overflowGrades
+    private static final int OVERFLOW_GRADE = 255;
+
+    // Replaced by larger copies as the table grows; volatile so readers see the copied contents
+    private volatile int[] rollNumbers;
+    private volatile byte[] gradeCodes;
+    private volatile int[] nameOffsets;
+    private volatile int[] nameLengths;
+    private volatile byte[] names;
+    private int size;
+    private int namesSize;
+
+    private final String[] grades = new String[OVERFLOW_GRADE];
+    private final Map<String, Integer> gradeCodeMap = new HashMap<>(); // Only used while appending
+    private final Map<Integer, String> overflowGrades = new ConcurrentHashMap<>();
+
+    // View of one row; setting a field only changes the view, like changing any other Student object
+    private static class StudentView extends Student {
+        private final StudentTable table;
+        private final int row;
+
+        StudentView(StudentTable table, int row) {
+            super(null, table.rollNumberAt(row), null);
+            this.table = table;
+            this.row = row;
+        }
+
+        @Override
+        public String getName() {
+            String name = super.getName();
+            return name != null ? name : table.nameAt(row);
+        }
+
+        @Override
+        public String getGrade() {
+            String grade = super.getGrade();
+            return grade != null ? grade : table.gradeAt(row);
+        }
+    }
+
+    public StudentTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public StudentTable(int capacity) {
+        this(capacity, capacity * 8L);
+    }
+
+    // Room for capacity students with names of nameCapacity UTF-8 bytes in all
+    public StudentTable(int capacity, long nameCapacity) {
+        capacity = Math.max(capacity, INITIAL_CAPACITY);
+        rollNumbers = new int[capacity];
+        gradeCodes = new byte[capacity];
+        nameOffsets = new int[capacity];
+        nameLengths = new int[capacity];
+        names = new byte[(int) Math.min(Math.max(nameCapacity, capacity * 8L), Integer.MAX_VALUE - 8)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Append a student; returns its row
+    public int add(Student student) {
+        return add(student.getRollNumber(), student.getName().getBytes(StandardCharsets.UTF_8), student.getGrade());
+    }
+
+    // Append a student whose name is already UTF-8 encoded; returns its row
+    public int add(int rollNumber, byte[] name, String grade) {
+        return add(rollNumber, name, 0, name.length, grade);
+    }
+
+    // Append a copy of a row of another table (or this one); returns the new row
+    public int copyRow(StudentTable from, int row) {
+        return add(from.rollNumberAt(row), from.names, from.nameOffsets[row], from.nameLengths[row], from.gradeAt(row));
+    }
+
+    private int add(int rollNumber, byte[] name, int nameOffset, int nameLength, String grade) {
+        if (size == rollNumbers.length) {
+            growRows();
+        }
+        if (namesSize + nameLength > names.length) {
+            growNames(namesSize + nameLength);
+        }
+        System.arraycopy(name, nameOffset, names, namesSize, nameLength);
+
+        int row = size;
+        rollNumbers[row] = rollNumber;
+        gradeCodes[row] = (byte) gradeCode(grade);
+        if (gradeCodes[row] == (byte) OVERFLOW_GRADE) {
+            overflowGrades.put(row, grade);
+        }
+        nameOffsets[row] = namesSize;
+        nameLengths[row] = nameLength;
+        namesSize += nameLength;
+        size++;
+        return row;
+    }
+
+    // Code of the grade, added to the grade table if it is new
+    private int gradeCode(String grade) {
+        Integer code = gradeCodeMap.get(grade);
+        if (code == null) {
+            if (gradeCodeMap.size() == OVERFLOW_GRADE) {
+                return OVERFLOW_GRADE; // More distinct grades than one byte can name
+            }
+            code = gradeCodeMap.size();
+            grades[code] = grade;
+            gradeCodeMap.put(grade, code);
+        }
+        return code;
+    }
+
+    private void growRows() {
+        int capacity = rollNumbers.length * 2;
+        rollNumbers = Arrays.copyOf(rollNumbers, capacity);
+        gradeCodes = Arrays.copyOf(gradeCodes, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+    }
+
+    private void growNames(int minimumSize) {
+        long capacity = Math.max((long) names.length * 2, minimumSize);
+        if (capacity > Integer.MAX_VALUE - 8) {
+            if (minimumSize > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Names of the students exceed 2 GB");
+            }
+            capacity = Integer.MAX_VALUE - 8;
+        }
+        names = Arrays.copyOf(names, (int) capacity);
+    }
+
+    public int rollNumberAt(int row) {
+        return rollNumbers[row];
+    }
+
+    public String nameAt(int row) {
+        return new String(names, nameOffsets[row], nameLengths[row], StandardCharsets.UTF_8);
+    }
+
+    public String gradeAt(int row) {
+        int code = gradeCodes[row] & 0xFF;
+        return code == OVERFLOW_GRADE ? overflowGrades.get(row) : grades[code];
+    }
+
+    // Whether the row holds a student with the same roll number, name and grade
+    public boolean matches(int row, Student student) {
+        return rollNumberAt(row) == student.getRollNumber()
+                && gradeAt(row).equals(student.getGrade())
+                && nameAt(row).equals(student.getName());
+    }
+
+    public Student studentAt(int row) {
+        return new StudentView(this, row);
+    }
+
+    // Unmodifiable list of the students in the rows; views are made as the list is read
+    public List<Student> asList(int[] rows) {
+        return new RowList(this, rows);
+    }
+
+    private static class RowList extends AbstractList<Student> implements RandomAccess {
+        private final StudentTable table;
+        private final int[] rows;
+
+        RowList(StudentTable table, int[] rows) {
+            this.table = table;
+            this.rows = rows;
+        }
+
+        @Override
+        public Student get(int index) {
+            return table.studentAt(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+}
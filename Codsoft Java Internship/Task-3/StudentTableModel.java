@@ -0,0 +1,61 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.Collections;
+import java.util.List;
+
+// StudentTableModel class to show a list of students in a JTable. The model
+// only holds the list (usually the snapshot from getAllStudents()); a student
+// is read when its row is painted, so the names, which the StudentTable keeps
+// as UTF-8 bytes, are only decoded when they scroll into view.
+class StudentTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    static final int NAME_COLUMN = 0;
+    static final int ROLL_NUMBER_COLUMN = 1;
+    static final int GRADE_COLUMN = 2;
+
+    private static final String[] COLUMN_NAMES = {"Name", "Roll Number", "Grade"};
+
+    private List<Student> students = Collections.emptyList();
+
+    public void setStudents(List<Student> students) {
+        this.students = students;
+        fireTableDataChanged();
+    }
+
+    public Student getStudentAt(int row) {
+        return students.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return students.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == ROLL_NUMBER_COLUMN ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Student student = students.get(row);
+        switch (column) {
+            case NAME_COLUMN:
+                return student.getName();
+            case ROLL_NUMBER_COLUMN:
+                return student.getRollNumber();
+            default:
+                return student.getGrade();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// StudentTextLoader class to read a students.txt file on all cores. The file
+// is split into byte ranges that end at line breaks, each range is mapped and
+// parsed on a fork/join pool, and the results are joined back in file order.
+// Lines that are not "name,roll number,grade" are collected with their line
+// numbers, so the caller can report them.
+class StudentTextLoader {
+    // Ranges smaller than this are never split further
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+
+    private final File file;
+    private final Charset charset = Charset.defaultCharset(); // Same as FileReader
+    private List<Student> students = new ArrayList<>();
+    private List<String> problems = new ArrayList<>();
+    private long chunkSize;
+
+    // Students and problems of one range; line numbers are relative to its start
+    private static class Chunk {
+        List<Student> students = new ArrayList<>();
+        List<Integer> problemLines = new ArrayList<>();
+        List<String> problemTexts = new ArrayList<>();
+        int lineCount;
+    }
+
+    public StudentTextLoader(File file) {
+        this.file = file;
+    }
+
+    // Read the file; afterwards getStudents() and getProblems() hold the result
+    public void load() throws IOException {
+        load(ForkJoinPool.commonPool());
+    }
+
+    public void load(ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // A few ranges per thread, so threads that finish early can take over work
+            chunkSize = Math.max(MIN_CHUNK_SIZE, channel.size() / (pool.getParallelism() * 4L));
+            List<Chunk> chunks = pool.invoke(new ParseTask(channel, 0, channel.size()));
+
+            // Join the ranges in file order in one pass
+            int studentCount = 0;
+            for (Chunk chunk : chunks) {
+                studentCount += chunk.students.size();
+            }
+            students = new ArrayList<>(studentCount);
+            problems = new ArrayList<>();
+            int lineOffset = 0;
+            for (Chunk chunk : chunks) {
+                students.addAll(chunk.students);
+                for (int i = 0; i < chunk.problemLines.size(); i++) {
+                    problems.add("line " + (lineOffset + chunk.problemLines.get(i)) + ": " + chunk.problemTexts.get(i));
+                }
+                lineOffset += chunk.lineCount;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Students in file order, including any duplicates
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    // One message per malformed line
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    // Parses a byte range into its chunks, in file order
+    private class ParseTask extends RecursiveTask<List<Chunk>> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ParseTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<Chunk> compute() {
+            try {
+                long middle = end - start <= chunkSize ? end : lineEnd(start + (end - start) / 2);
+                if (middle >= end) {
+                    List<Chunk> chunks = new ArrayList<>();
+                    chunks.add(parse());
+                    return chunks;
+                }
+                ParseTask left = new ParseTask(channel, start, middle);
+                ParseTask right = new ParseTask(channel, middle, end);
+                left.fork();
+                List<Chunk> after = right.compute();
+                List<Chunk> chunks = left.join();
+                chunks.addAll(after);
+                return chunks;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Position just behind the first line break at or after the given position
+        private long lineEnd(long position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (position < end) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            return end;
+        }
+
+        private Chunk parse() throws IOException {
+            Chunk chunk = new Chunk();
+            if (end == start) {
+                return chunk;
+            }
+            String text = charset.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)).toString();
+            int lineStart = 0;
+            while (lineStart < text.length()) {
+                int lineEnd = text.indexOf('\n', lineStart);
+                if (lineEnd < 0) {
+                    lineEnd = text.length();
+                }
+                int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                chunk.lineCount++;
+                parseLine(text, lineStart, contentEnd, chunk);
+                lineStart = lineEnd + 1;
+            }
+            return chunk;
+        }
+
+        // Parse one line in place; accepts the same lines as line.split(",") with three parts
+        private void parseLine(String text, int start, int end, Chunk chunk) {
+            if (skipSpaces(text, start, end) == end) {
+                return; // Blank line
+            }
+            int fieldsEnd = end;
+            while (fieldsEnd > start && text.charAt(fieldsEnd - 1) == ',') {
+                fieldsEnd--; // split() drops trailing empty fields
+            }
+            int firstComma = text.indexOf(',', start);
+            int secondComma = firstComma < 0 || firstComma >= fieldsEnd ? -1 : text.indexOf(',', firstComma + 1);
+            if (secondComma < 0 || secondComma >= fieldsEnd || text.lastIndexOf(',', fieldsEnd - 1) != secondComma) {
+                if (text.charAt(start) == '#') {
+                    return; // Comment, such as the journal generation
+                }
+                addProblem(chunk, text.substring(start, end) + " (expected name,roll number,grade)");
+                return;
+            }
+            try {
+                int rollStart = skipSpaces(text, firstComma + 1, secondComma);
+                int rollNumber = Integer.parseInt(text, rollStart, trimEnd(text, rollStart, secondComma), 10);
+                chunk.students.add(new Student(text.substring(start, firstComma).trim(), rollNumber,
+                        text.substring(secondComma + 1, fieldsEnd).trim()));
+            } catch (NumberFormatException e) {
+                addProblem(chunk, text.substring(start, end) + " (invalid roll number)");
+            }
+        }
+
+        // Same whitespace as String.trim()
+        private int skipSpaces(String text, int start, int end) {
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        private int trimEnd(String text, int start, int end) {
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return end;
+        }
+
+        private void addProblem(Chunk chunk, String text) {
+            chunk.problemLines.add(chunk.lineCount);
+            chunk.problemTexts.add(text);
+        }
+    }
+}
@@ -1,133 +1,18 @@
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.*;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-
-// Student class to represent individual students
-class Student {
-    private String name;
-    private int rollNumber;
-    private String grade;
-
-    public Student(String name, int rollNumber, String grade) {
-        this.name = name;
-        this.rollNumber = rollNumber;
-        this.grade = grade;
-    }
-
-    // Getters and setters
-
-    public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public int getRollNumber() {
-        return rollNumber;
-    }
-
-    public void setRollNumber(int rollNumber) {
-        this.rollNumber = rollNumber;
-    }
-
-    public String getGrade() {
-        return grade;
-    }
-
-    public void setGrade(String grade) {
-        this.grade = grade;
-    }
-
-    @Override
-    public String toString() {
-        return "Name: " + name + ", Roll Number: " + rollNumber + ", Grade: " + grade;
-    }
-}
-
-// StudentManagementSystem class to manage the collection of students
-class StudentManagementSystem {
-    private List<Student> students;
-    private File dataFile; // The file to store student data
-
-    public StudentManagementSystem() {
-        students = new ArrayList<>();
-        dataFile = new File("students.txt");
-        loadStudents(); // Load students from the file when the system is initialized
-    }
-
-    public void addStudent(Student student) {
-        students.add(student);
-    }
-
-    public void removeStudent(Student student) {
-        students.remove(student);
-    }
-
-    public Student searchStudent(int rollNumber) {
-        for (Student student : students) {
-            if (student.getRollNumber() == rollNumber) {
-                return student;
-            }
-        }
-        return null;
-    }
-
-    public List<Student> getAllStudents() {
-        return students;
-    }
-
-    // Method to load students from the file
-    private void loadStudents() {
-        if (dataFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(dataFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length == 3) {
-                        String name = parts[0].trim();
-                        int rollNumber = Integer.parseInt(parts[1].trim());
-                        String grade = parts[2].trim();
-                        Student student = new Student(name, rollNumber, grade);
-                        students.add(student);
-                    }
-                }
-            } catch (IOException e) {
-                // Error occurred while reading the file
-                // You can handle the exception according to your requirement
-                e.printStackTrace();
-            }
-        }
-    }
-
-    // Method to save students to the file
-    public void saveStudents() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(dataFile))) {
-            for (Student student : students) {
-                writer.write(student.getName() + "," + student.getRollNumber() + "," + student.getGrade());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            // Error occurred while writing the file
-            // You can handle the exception according to your requirement
-            e.printStackTrace();
-        }
-    }
-
-    // Additional methods for searching, removing, and editing students
-    public void editStudent(Student oldStudent, Student newStudent) {
-        int index = students.indexOf(oldStudent);
-        if (index != -1) {
-            students.set(index, newStudent);
-        }
-    }
-}
-
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
 
 // StudentManagementGUI class to create the GUI for interacting with the student management system
 class StudentManagementGUI extends JFrame {
@@ -138,17 +23,23 @@ class StudentManagementGUI extends JFrame {
     private JTextField rollNumberField;
     private JTextField gradeField;
     private JTextArea outputArea;
+    private StudentTableModel studentTableModel; // Empty until Display All Students is clicked
+    private TableRowSorter<StudentTableModel> studentSorter;
+    private JTable studentTable;
+    private JTextField filterField;
+    private Timer filterTimer;
+    private boolean showingStudents; // Whether the table should follow changes
 
     public StudentManagementGUI() {
         setTitle("Student Management System");
-        setSize(400, 300);
+        setSize(500, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
         managementSystem = new StudentManagementSystem();
 
-        JPanel inputPanel = new JPanel(new GridLayout(6, 2));
+        JPanel inputPanel = new JPanel(new GridLayout(7, 2));
         inputPanel.add(new JLabel("Name:"));
         nameField = new JTextField(20);
         inputPanel.add(nameField);
@@ -181,10 +72,64 @@ class StudentManagementGUI extends JFrame {
 
         add(inputPanel, BorderLayout.NORTH);
 
-        outputArea = new JTextArea(10,30);
+        // Table of all students; only the rows in view are read and painted
+        studentTableModel = new StudentTableModel();
+        studentTable = new JTable(studentTableModel);
+        studentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        studentSorter = new TableRowSorter<>(studentTableModel);
+        // Plain comparisons; the default Collator is much slower on large tables
+        studentSorter.setComparator(StudentTableModel.NAME_COLUMN, String.CASE_INSENSITIVE_ORDER);
+        studentSorter.setComparator(StudentTableModel.GRADE_COLUMN, Comparator.naturalOrder());
+        studentTable.setRowSorter(studentSorter);
+        studentTable.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
+            @Override
+            public void valueChanged(ListSelectionEvent e) {
+                if (!e.getValueIsAdjusting()) {
+                    showSelectedStudent();
+                }
+            }
+        });
+
+        // Filter the table a moment after the user stops typing, not on every key
+        filterField = new JTextField(20);
+        filterTimer = new Timer(250, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                applyFilter();
+            }
+        });
+        filterTimer.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+        JPanel filterPanel = new JPanel(new BorderLayout(5, 0));
+        filterPanel.add(new JLabel("Filter:"), BorderLayout.WEST);
+        filterPanel.add(filterField, BorderLayout.CENTER);
+
+        JPanel tablePanel = new JPanel(new BorderLayout(0, 5));
+        tablePanel.add(filterPanel, BorderLayout.NORTH);
+        tablePanel.add(new JScrollPane(studentTable), BorderLayout.CENTER);
+        tablePanel.setBorder(new javax.swing.border.EmptyBorder(0, 30, 0, 30));
+        add(tablePanel, BorderLayout.CENTER);
+
+        // Messages about the last action
+        outputArea = new JTextArea(5,30);
         outputArea.setEditable(false);
         JScrollPane scrollPane = new JScrollPane(outputArea);
-        add(scrollPane, BorderLayout.CENTER);
+        add(scrollPane, BorderLayout.SOUTH);
 
         // Add padding to the input panel
         javax.swing.border.EmptyBorder inputPanelPadding = new javax.swing.border.EmptyBorder(30, 30, 30, 30);
@@ -220,6 +165,45 @@ class StudentManagementGUI extends JFrame {
             }
         });
         inputPanel.add(editButton);
+
+        JButton gradeSearchButton = new JButton("Search by Grade");
+        gradeSearchButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                searchByGrade();
+            }
+        });
+        inputPanel.add(gradeSearchButton);
+
+        JButton nameSearchButton = new JButton("Search by Name");
+        nameSearchButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                searchByName();
+            }
+        });
+        inputPanel.add(nameSearchButton);
+
+        JButton statisticsButton = new JButton("Statistics");
+        statisticsButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showStatistics();
+            }
+        });
+        inputPanel.add(statisticsButton);
+
+        // Tell the user about lines of the data file that were skipped
+        List<String> loadProblems = managementSystem.getLoadProblems();
+        if (!loadProblems.isEmpty()) {
+            outputArea.append(loadProblems.size() + " line(s) of the data file could not be loaded:\n");
+            for (String problem : loadProblems.subList(0, Math.min(100, loadProblems.size()))) {
+                outputArea.append(problem + "\n");
+            }
+            if (loadProblems.size() > 100) {
+                outputArea.append("... and " + (loadProblems.size() - 100) + " more (see the console)\n");
+            }
+        }
     }
     
 
@@ -239,26 +223,67 @@ class StudentManagementGUI extends JFrame {
         try {
             int rollNumber = Integer.parseInt(rollNumberStr);
             Student student = new Student(name, rollNumber, grade);
-            managementSystem.addStudent(student);
+            if (!managementSystem.addStudent(student)) {
+                JOptionPane.showMessageDialog(this, "A student with Roll Number " + rollNumber + " already exists.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             outputArea.append("Student added: " + student.toString() + "\n");
             clearInputFields();
+            refreshStudents();
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid Roll Number. Please enter a valid number.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (UncheckedIOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not save the change:\n" + ex.getCause().getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
     // Method to display all students
     private void displayStudents() {
-        // Implementation for displaying all students
-        // Use the managementSystem to get all students and show them in the outputArea
+        // The table reads the current snapshot of the students; nothing is copied per student
         List<Student> students = managementSystem.getAllStudents();
-        outputArea.setText("");
+        studentTableModel.setStudents(students);
+        showingStudents = true;
         if (students.isEmpty()) {
-            outputArea.append("No students found.\n");
+            outputArea.setText("No students found.\n");
         } else {
-            for (Student student : students) {
-                outputArea.append(student.toString() + "\n");
+            outputArea.setText("Showing " + students.size() + " student(s).\n");
+        }
+    }
+
+    // Show the students again after a change, if they are shown at all
+    private void refreshStudents() {
+        if (showingStudents) {
+            studentTableModel.setStudents(managementSystem.getAllStudents());
+        }
+    }
+
+    // Show only the students whose name contains the filter text, whose roll
+    // number starts with it or whose grade is it (ignoring case)
+    private void applyFilter() {
+        String text = filterField.getText().trim().toLowerCase(Locale.ROOT);
+        if (text.isEmpty()) {
+            studentSorter.setRowFilter(null);
+            return;
+        }
+        studentSorter.setRowFilter(new RowFilter<StudentTableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends StudentTableModel, ? extends Integer> entry) {
+                Student student = entry.getModel().getStudentAt(entry.getIdentifier());
+                return student.getName().toLowerCase(Locale.ROOT).contains(text)
+                        || String.valueOf(student.getRollNumber()).startsWith(text)
+                        || student.getGrade().equalsIgnoreCase(text);
             }
+        });
+    }
+
+    // Put the student selected in the table into the fields, ready to edit or remove
+    private void showSelectedStudent() {
+        int row = studentTable.getSelectedRow();
+        if (row >= 0) {
+            Student student = studentTableModel.getStudentAt(studentTable.convertRowIndexToModel(row));
+            nameField.setText(student.getName());
+            rollNumberField.setText(String.valueOf(student.getRollNumber()));
+            gradeField.setText(student.getGrade());
         }
     }
 
@@ -276,11 +301,14 @@ class StudentManagementGUI extends JFrame {
                 managementSystem.removeStudent(studentToRemove);
                 outputArea.append("Student removed: " + studentToRemove.toString() + "\n");
                 clearInputFields();
+                refreshStudents();
             } else {
                 JOptionPane.showMessageDialog(this, "Student not found with Roll Number: " + rollNumber, "Student Not Found", JOptionPane.ERROR_MESSAGE);
             }
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid Roll Number. Please enter a valid number.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (UncheckedIOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not save the change:\n" + ex.getCause().getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -304,6 +332,64 @@ class StudentManagementGUI extends JFrame {
         }
     }
 
+    // Method to list the students with the grade in the grade field
+    private void searchByGrade() {
+        String grade = gradeField.getText().trim();
+        if (grade.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please enter the Grade to search for.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        showSearchResults("with Grade " + grade, managementSystem.searchByGrade(grade));
+    }
+
+    // Method to list the students whose name starts with the text in the name field
+    private void searchByName() {
+        String prefix = nameField.getText().trim();
+        if (prefix.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please enter the start of the Name to search for.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        showSearchResults("whose name starts with '" + prefix + "'", managementSystem.searchByNamePrefix(prefix));
+    }
+
+    // Show the first matches of a search; the rest of the stream is never read
+    private void showSearchResults(String description, Stream<Student> results) {
+        final int maxShown = 1000;
+        StringBuilder text = new StringBuilder();
+        int[] count = new int[1];
+        results.limit(maxShown + 1).forEach(student -> {
+            if (++count[0] <= maxShown) {
+                text.append(student.toString()).append("\n");
+            }
+        });
+        if (count[0] == 0) {
+            outputArea.setText("No students found " + description + ".\n");
+        } else if (count[0] > maxShown) {
+            outputArea.setText("First " + maxShown + " students " + description + ":\n" + text);
+        } else {
+            outputArea.setText("Students " + description + ":\n" + text);
+        }
+    }
+
+    // Method to show the number of students per grade and the range of roll numbers
+    private void showStatistics() {
+        RosterStatistics statistics = managementSystem.getStatistics();
+        if (statistics.getStudentCount() == 0) {
+            outputArea.setText("No students found.\n");
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        text.append("Students: ").append(statistics.getStudentCount()).append("\n");
+        text.append("Roll Numbers: ").append(statistics.getMinRollNumber())
+                .append(" to ").append(statistics.getMaxRollNumber()).append("\n");
+        for (Map.Entry<String, Integer> grade : statistics.getGradeCounts().entrySet()) {
+            text.append("Grade ").append(grade.getKey()).append(": ").append(grade.getValue())
+                    .append(String.format(" (%.1f%%)", 100.0 * grade.getValue() / statistics.getStudentCount()))
+                    .append("\n");
+        }
+        outputArea.setText(text.toString());
+    }
+
     private void editStudent() {
         String rollNumberStr = rollNumberField.getText();
         if (rollNumberStr.isEmpty()) {
@@ -318,11 +404,16 @@ class StudentManagementGUI extends JFrame {
                 String name = nameField.getText();
                 String grade = gradeField.getText();
                 if (!name.isEmpty() && !grade.isEmpty()) {
-                    studentToEdit.setName(name);
-                    studentToEdit.setGrade(grade);
-                    managementSystem.editStudent(studentToEdit, studentToEdit);
-                    outputArea.append("Student edited: " + studentToEdit.toString() + "\n");
+                    Student editedStudent = new Student(name, rollNumber, grade);
+                    if (!managementSystem.editStudent(studentToEdit, editedStudent)) {
+                        // Changed or removed by someone else since it was looked up
+                        JOptionPane.showMessageDialog(this, "The student with Roll Number " + rollNumber + " was changed or removed meanwhile and was not edited.", "Edit Error", JOptionPane.ERROR_MESSAGE);
+                        refreshStudents();
+                        return;
+                    }
+                    outputArea.append("Student edited: " + editedStudent.toString() + "\n");
                     clearInputFields();
+                    refreshStudents();
                 } else {
                     JOptionPane.showMessageDialog(this, "Please fill all the fields.", "Input Error", JOptionPane.ERROR_MESSAGE);
                 }
@@ -331,6 +422,8 @@ class StudentManagementGUI extends JFrame {
             }
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid Roll Number. Please enter a valid number.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (UncheckedIOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not save the change:\n" + ex.getCause().getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -354,11 +447,11 @@ public class mainn {
                 StudentManagementGUI gui = new StudentManagementGUI();
                 gui.setVisible(true);
 
-                // Save students to the file when the application is closed
+                // Write the last changes to disk when the application is closed
                 gui.addWindowListener(new java.awt.event.WindowAdapter() {
                     @Override
                     public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                        gui.getManagementSystem().saveStudents();
+                        gui.getManagementSystem().close();
                     }
                 });
             }
@@ -0,0 +1,194 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// AddressBook class to manage the collection of contacts.
+// Contacts are found by name through a hash index keyed by the name with its
+// case folded, so searching does not compare every contact. Several contacts
+// may have the same name; the index keeps all of them, in the order they
+// got the name. Change names through editContact() to keep the index right.
+// Each contact knows its position in the list, so removing it does not scan
+// the list; it leaves a hole instead of shifting the contacts after it, and
+// the holes are closed once there are more holes than contacts.
+// For type-ahead, names and email addresses are also kept in a prefix trie.
+// It is filled while the contacts are loaded rather than on the first
+// completion, so typing never waits for the whole book to be indexed.
+class AddressBook {
+    private List<Contact> contacts; // Null where a contact was removed, until compactContacts()
+    private int removedCount;
+    private Map<String, List<Contact>> nameIndex; // Folded name -> contacts with that name
+    private ContactPrefixTrie prefixIndex; // Names and email addresses
+    private File dataFile; // The file to store contact data
+
+    public AddressBook() {
+        contacts = new ArrayList<>();
+        nameIndex = new HashMap<>();
+        prefixIndex = new ContactPrefixTrie();
+        dataFile = new File("contacts.txt");
+        loadContacts(); // Load contacts from the file when the system is initialized
+    }
+
+    // The name with every character mapped the way equalsIgnoreCase() compares them,
+    // so two names have the same key exactly when they are equal ignoring case.
+    // Returns the name itself if no character changes.
+    static String foldCase(String name) {
+        char[] chars = null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c) {
+                if (chars == null) {
+                    chars = name.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return chars == null ? name : new String(chars);
+    }
+
+    public void addContact(Contact contact) {
+        contact.position = contacts.size();
+        contacts.add(contact);
+        nameIndex.computeIfAbsent(foldCase(contact.getName()), key -> new ArrayList<>(1)).add(contact);
+        addToPrefixIndex(contact);
+    }
+
+    public void removeContact(Contact contact) {
+        int position = contact.position;
+        if (position < 0 || position >= contacts.size() || contacts.get(position) != contact) {
+            return; // Not in this address book
+        }
+        contacts.set(position, null);
+        contact.position = -1;
+        removeFromIndex(contact);
+        removeFromPrefixIndex(contact);
+        if (++removedCount > contacts.size() - removedCount) {
+            compactContacts();
+        }
+    }
+
+    // Close the holes left by removed contacts, keeping the order of the others
+    private void compactContacts() {
+        int kept = 0;
+        for (Contact contact : contacts) {
+            if (contact != null) {
+                contact.position = kept;
+                contacts.set(kept++, contact);
+            }
+        }
+        contacts.subList(kept, contacts.size()).clear();
+        removedCount = 0;
+    }
+
+    private void addToPrefixIndex(Contact contact) {
+        prefixIndex.add(contact.getName(), contact);
+        prefixIndex.add(contact.getEmailAddress(), contact);
+    }
+
+    private void removeFromPrefixIndex(Contact contact) {
+        prefixIndex.remove(contact.getName(), contact);
+        prefixIndex.remove(contact.getEmailAddress(), contact);
+    }
+
+    // Up to limit contacts whose name or email address starts with the prefix (ignoring
+    // case), in alphabetical order; if looking takes longer than budgetNanos, the ones
+    // found by then
+    public List<Contact> completeContacts(String prefix, int limit, long budgetNanos) {
+        return prefixIndex.find(prefix, limit, budgetNanos);
+    }
+
+    private void removeFromIndex(Contact contact) {
+        String key = foldCase(contact.getName());
+        List<Contact> sameName = nameIndex.get(key);
+        if (sameName != null) {
+            sameName.remove(contact);
+            if (sameName.isEmpty()) {
+                nameIndex.remove(key);
+            }
+        }
+    }
+
+    // Change the fields of a contact of this address book
+    public void editContact(Contact contact, String name, String phoneNumber, String emailAddress) {
+        removeFromPrefixIndex(contact);
+        if (!foldCase(name).equals(foldCase(contact.getName()))) {
+            removeFromIndex(contact);
+            contact.setName(name);
+            nameIndex.computeIfAbsent(foldCase(name), key -> new ArrayList<>(1)).add(contact);
+        } else {
+            contact.setName(name);
+        }
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmailAddress(emailAddress);
+        addToPrefixIndex(contact);
+    }
+
+    // The first contact with the name (ignoring case), or null
+    public Contact searchContact(String name) {
+        List<Contact> sameName = nameIndex.get(foldCase(name));
+        return sameName == null ? null : sameName.get(0);
+    }
+
+    // All contacts with the name (ignoring case), in the order they were added or renamed to it
+    public List<Contact> searchContacts(String name) {
+        List<Contact> sameName = nameIndex.get(foldCase(name));
+        return sameName == null ? Collections.emptyList() : Collections.unmodifiableList(sameName);
+    }
+
+    // All contacts, in the order they were added. A copy without the holes, which later
+    // changes do not affect; callers go over every contact anyway.
+    public List<Contact> getAllContacts() {
+        List<Contact> all = new ArrayList<>(contacts.size() - removedCount);
+        for (Contact contact : contacts) {
+            if (contact != null) {
+                all.add(contact);
+            }
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    // Method to load contacts from the file
+    private void loadContacts() {
+        if (dataFile.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(dataFile))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    if (parts.length == 3) {
+                        String name = parts[0].trim();
+                        String phoneNumber = parts[1].trim();
+                        String emailAddress = parts[2].trim();
+                        Contact contact = new Contact(name, phoneNumber, emailAddress);
+                        addContact(contact);
+                    }
+                }
+            } catch (IOException e) {
+                // Error occurred while reading the file
+                // You can handle the exception according to your requirement
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Method to save contacts to the file
+    public void saveContacts() {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(dataFile))) {
+            for (Contact contact : getAllContacts()) {
+                writer.write(contact.getName() + "," + contact.getPhoneNumber() + "," + contact.getEmailAddress());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            // Error occurred while writing the file
+            // You can handle the exception according to your requirement
+            e.printStackTrace();
+        }
+    }
+}
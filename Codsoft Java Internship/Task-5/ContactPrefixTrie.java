@@ -0,0 +1,225 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+// ContactPrefixTrie class to find the contacts whose name or email address
+// starts with what the user has typed so far, ignoring case. Keys are stored
+// in a compressed (radix) trie: every edge holds a whole run of characters,
+// so a key adds at most two nodes, and a lookup walks at most one node per
+// character of the prefix. Contacts are kept at the node where their key ends;
+// a contact is stored once under its name and once under its email address.
+// Labels are ranges of a key that runs through the node, so splitting and
+// merging edges never copies characters.
+class ContactPrefixTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Contact[] NO_CONTACTS = new Contact[0];
+    // The time budget is checked after visiting this many nodes
+    private static final int NODES_PER_CLOCK_CHECK = 256;
+
+    private static final class Node {
+        // The characters on the edge from the parent are source[start, end); source
+        // is a (folded) key that passes through this node, so source[0, end) is its path
+        String source;
+        int start;
+        int end;
+        Node[] children = NO_CHILDREN; // Sorted by the first character of their label
+        int childCount;
+        Contact[] contacts = NO_CONTACTS; // Contacts whose key ends here
+        int contactCount;
+
+        Node(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        int length() {
+            return end - start;
+        }
+
+        char firstChar() {
+            return source.charAt(start);
+        }
+    }
+
+    private final Node root = new Node("", 0, 0);
+
+    public void add(String key, Contact contact) {
+        key = AddressBook.foldCase(key);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = findChild(node, key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key, i, key.length());
+                insertChild(node, -index - 1, leaf);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child, key, i);
+            if (common < child.length()) {
+                // Split the edge where the key leaves it
+                Node middle = new Node(child.source, child.start, child.start + common);
+                child.start += common;
+                middle.children = new Node[] {child};
+                middle.childCount = 1;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.contactCount == node.contacts.length) {
+            node.contacts = Arrays.copyOf(node.contacts, Math.max(1, node.contactCount * 2));
+        }
+        node.contacts[node.contactCount++] = contact;
+    }
+
+    public void remove(String key, Contact contact) {
+        key = AddressBook.foldCase(key);
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = findChild(node, key.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (commonPrefix(child, key, i) < child.length()) {
+                return;
+            }
+            path.push(node);
+            node = child;
+            i += child.length();
+        }
+
+        int position = -1;
+        for (int j = 0; j < node.contactCount; j++) {
+            if (node.contacts[j] == contact) {
+                position = j;
+                break;
+            }
+        }
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(node.contacts, position + 1, node.contacts, position, node.contactCount - position - 1);
+        node.contacts[--node.contactCount] = null;
+
+        // Drop nodes that lead nowhere and merge the ones that only pass through
+        while (node != root && node.contactCount == 0) {
+            Node parent = path.pop();
+            if (node.childCount == 0) {
+                removeChild(parent, node);
+            } else if (node.childCount == 1) {
+                Node child = node.children[0];
+                child.start -= node.length(); // The child's source spells the whole path
+                parent.children[findChild(parent, child.firstChar())] = child;
+                break;
+            } else {
+                break;
+            }
+            node = parent;
+        }
+    }
+
+    // Up to limit contacts with a key starting with the prefix, in key order (so
+    // exact matches first), each contact once. If the walk is still running when
+    // budgetNanos have passed, the contacts found until then are returned.
+    public List<Contact> find(String prefix, int limit, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        String key = AddressBook.foldCase(prefix);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = findChild(node, key.charAt(i));
+            if (index < 0) {
+                return Collections.emptyList();
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child, key, i);
+            if (i + common == key.length()) {
+                node = child; // The prefix ends on this edge (or at its end)
+                break;
+            }
+            if (common < child.length()) {
+                return Collections.emptyList();
+            }
+            node = child;
+            i += common;
+        }
+
+        // Depth first, children in order, so keys come out sorted
+        List<Contact> found = new ArrayList<>(limit);
+        Set<Contact> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        int visited = 0;
+        while (!stack.isEmpty() && found.size() < limit) {
+            node = stack.pop();
+            for (int j = 0; j < node.contactCount && found.size() < limit; j++) {
+                if (seen.add(node.contacts[j])) {
+                    found.add(node.contacts[j]);
+                }
+            }
+            for (int j = node.childCount - 1; j >= 0; j--) {
+                stack.push(node.children[j]);
+            }
+            if (++visited % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() - deadline > 0) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    // Length of the common prefix of the node's label and key.substring(start)
+    private static int commonPrefix(Node node, String key, int start) {
+        int max = Math.min(node.length(), key.length() - start);
+        int i = 0;
+        while (i < max && node.source.charAt(node.start + i) == key.charAt(start + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // Binary search for the child whose label starts with c; returns -(insertion point) - 1 if there is none
+    private static int findChild(Node node, char c) {
+        int low = 0;
+        int high = node.childCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char first = node.children[middle].firstChar();
+            if (first < c) {
+                low = middle + 1;
+            } else if (first > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int index, Node child) {
+        if (node.childCount == node.children.length) {
+            node.children = Arrays.copyOf(node.children, Math.max(2, node.childCount * 2));
+        }
+        System.arraycopy(node.children, index, node.children, index + 1, node.childCount - index);
+        node.children[index] = child;
+        node.childCount++;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        int index = findChild(node, child.firstChar());
+        System.arraycopy(node.children, index + 1, node.children, index, node.childCount - index - 1);
+        node.children[--node.childCount] = null;
+    }
+}
@@ -2,126 +2,25 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.*;
-import java.util.ArrayList;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.Collections;
 import java.util.List;
 
-// Contact class to represent individual contacts
-class Contact {
-    private String name;
-    private String phoneNumber;
-    private String emailAddress;
-
-    public Contact(String name, String phoneNumber, String emailAddress) {
-        this.name = name;
-        this.phoneNumber = phoneNumber;
-        this.emailAddress = emailAddress;
-    }
-
-    // Getters and setters
-
-    public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public String getPhoneNumber() {
-        return phoneNumber;
-    }
-
-    public void setPhoneNumber(String phoneNumber) {
-        this.phoneNumber = phoneNumber;
-    }
-
-    public String getEmailAddress() {
-        return emailAddress;
-    }
-
-    public void setEmailAddress(String emailAddress) {
-        this.emailAddress = emailAddress;
-    }
-
-    @Override
-    public String toString() {
-        return "Name: " + name + ", Phone: " + phoneNumber + ", Email: " + emailAddress;
-    }
-}
-
-// AddressBook class to manage the collection of contacts
-class AddressBook {
-    private List<Contact> contacts;
-    private File dataFile; // The file to store contact data
-
-    public AddressBook() {
-        contacts = new ArrayList<>();
-        dataFile = new File("contacts.txt");
-        loadContacts(); // Load contacts from the file when the system is initialized
-    }
-
-    public void addContact(Contact contact) {
-        contacts.add(contact);
-    }
-
-    public void removeContact(Contact contact) {
-        contacts.remove(contact);
-    }
-
-    public Contact searchContact(String name) {
-        for (Contact contact : contacts) {
-            if (contact.getName().equalsIgnoreCase(name)) {
-                return contact;
-            }
-        }
-        return null;
-    }
-
-    public List<Contact> getAllContacts() {
-        return contacts;
-    }
-
-    // Method to load contacts from the file
-    private void loadContacts() {
-        if (dataFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(dataFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length == 3) {
-                        String name = parts[0].trim();
-                        String phoneNumber = parts[1].trim();
-                        String emailAddress = parts[2].trim();
-                        Contact contact = new Contact(name, phoneNumber, emailAddress);
-                        contacts.add(contact);
-                    }
-                }
-            } catch (IOException e) {
-                // Error occurred while reading the file
-                // You can handle the exception according to your requirement
-                e.printStackTrace();
-            }
-        }
-    }
-
-    // Method to save contacts to the file
-    public void saveContacts() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(dataFile))) {
-            for (Contact contact : contacts) {
-                writer.write(contact.getName() + "," + contact.getPhoneNumber() + "," + contact.getEmailAddress());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            // Error occurred while writing the file
-            // You can handle the exception according to your requirement
-            e.printStackTrace();
-        }
-    }
-}
-
 // AddressBookGUI class to create the GUI for interacting with the address book system
 class AddressBookGUI extends JFrame {
+    // Suggestions shown while typing a name: how many, how long after the last key, and
+    // how long looking for them may take before the ones found so far are shown
+    private static final int SUGGESTION_COUNT = 8;
+    private static final int SUGGESTION_DELAY_MS = 150;
+    private static final long SUGGESTION_BUDGET_NANOS = 5_000_000;
+
     private AddressBook addressBook;
 
     // GUI components...
@@ -129,6 +28,11 @@ class AddressBookGUI extends JFrame {
     private JTextField phoneField;
     private JTextField emailField;
     private JTextArea outputArea;
+    private JPopupMenu suggestionPopup;
+    private DefaultListModel<Contact> suggestionModel;
+    private JList<Contact> suggestionList;
+    private Timer suggestionTimer;
+    private boolean fillingFields; // True while a chosen suggestion is put into the fields
 
     public AddressBookGUI() {
         setTitle("Address Book System");
@@ -211,6 +115,118 @@ class AddressBookGUI extends JFrame {
         // Add padding to the output area
         javax.swing.border.EmptyBorder outputAreaPadding = new javax.swing.border.EmptyBorder(30, 30, 30, 30);
         outputArea.setBorder(outputAreaPadding);
+
+        createSuggestions();
+    }
+
+    // Suggest contacts under the name field as the user types, once typing pauses
+    private void createSuggestions() {
+        suggestionModel = new DefaultListModel<>();
+        suggestionList = new JList<>(suggestionModel);
+        suggestionList.setFocusable(false); // Typing stays in the name field
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = suggestionList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    chooseSuggestion(suggestionModel.get(index));
+                }
+            }
+        });
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.add(suggestionList);
+
+        suggestionTimer = new Timer(SUGGESTION_DELAY_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showSuggestions();
+            }
+        });
+        suggestionTimer.setRepeats(false);
+
+        nameField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                nameChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                nameChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                nameChanged();
+            }
+        });
+
+        // Up and Down move through the suggestions, Enter takes one, Escape closes them
+        nameField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!suggestionPopup.isVisible()) {
+                    return;
+                }
+                int selected = suggestionList.getSelectedIndex();
+                if (e.getKeyCode() == KeyEvent.VK_DOWN) {
+                    suggestionList.setSelectedIndex(Math.min(selected + 1, suggestionModel.size() - 1));
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_UP) {
+                    suggestionList.setSelectedIndex(Math.max(selected - 1, 0));
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_ENTER && selected >= 0) {
+                    chooseSuggestion(suggestionModel.get(selected));
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    suggestionPopup.setVisible(false);
+                    e.consume();
+                }
+            }
+        });
+        nameField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                suggestionTimer.stop();
+                suggestionPopup.setVisible(false);
+            }
+        });
+    }
+
+    private void nameChanged() {
+        if (!fillingFields) {
+            suggestionTimer.restart();
+        }
+    }
+
+    private void showSuggestions() {
+        String prefix = nameField.getText().trim();
+        List<Contact> matches = prefix.isEmpty() || !nameField.hasFocus() ? Collections.emptyList()
+                : addressBook.completeContacts(prefix, SUGGESTION_COUNT, SUGGESTION_BUDGET_NANOS);
+        if (matches.isEmpty()) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
+        suggestionModel.clear();
+        for (Contact contact : matches) {
+            suggestionModel.addElement(contact);
+        }
+        suggestionList.setVisibleRowCount(matches.size());
+        suggestionPopup.setPopupSize(nameField.getWidth(), suggestionList.getPreferredScrollableViewportSize().height
+                + suggestionPopup.getInsets().top + suggestionPopup.getInsets().bottom);
+        suggestionPopup.show(nameField, 0, nameField.getHeight());
+    }
+
+    // Put the chosen contact into the fields, ready to remove or edit
+    private void chooseSuggestion(Contact contact) {
+        suggestionTimer.stop();
+        suggestionPopup.setVisible(false);
+        fillingFields = true;
+        nameField.setText(contact.getName());
+        phoneField.setText(contact.getPhoneNumber());
+        emailField.setText(contact.getEmailAddress());
+        fillingFields = false;
     }
 
     // Method to add a contact
@@ -256,14 +272,28 @@ class AddressBookGUI extends JFrame {
             return;
         }
 
-        Contact contactToRemove = addressBook.searchContact(name);
+        Contact contactToRemove = chooseContact(name, "remove");
         if (contactToRemove != null) {
             addressBook.removeContact(contactToRemove);
             outputArea.append("Contact removed: " + contactToRemove.toString() + "\n");
             clearInputFields();
-        } else {
+        }
+    }
+
+    // Find the contact with the name to remove or edit; asks which one is meant if
+    // several contacts have the name. Returns null (after telling the user why) if none is chosen.
+    private Contact chooseContact(String name, String action) {
+        List<Contact> contacts = addressBook.searchContacts(name);
+        if (contacts.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Contact not found with name: " + name, "Contact Not Found", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        if (contacts.size() == 1) {
+            return contacts.get(0);
         }
+        return (Contact) JOptionPane.showInputDialog(this,
+                contacts.size() + " contacts are named " + name + ". Which one do you want to " + action + "?",
+                "Choose Contact", JOptionPane.QUESTION_MESSAGE, null, contacts.toArray(), contacts.get(0));
     }
 
     // Method to search for a contact
@@ -275,9 +305,15 @@ class AddressBookGUI extends JFrame {
             return;
         }
 
-        Contact contact = addressBook.searchContact(name);
-        if (contact != null) {
-            outputArea.setText("Contact found: " + contact.toString() + "\n");
+        List<Contact> contacts = addressBook.searchContacts(name);
+        if (contacts.size() == 1) {
+            outputArea.setText("Contact found: " + contacts.get(0).toString() + "\n");
+        } else if (!contacts.isEmpty()) {
+            StringBuilder text = new StringBuilder(contacts.size() + " contacts found:\n");
+            for (Contact contact : contacts) {
+                text.append(contact.toString()).append("\n");
+            }
+            outputArea.setText(text.toString());
         } else {
             outputArea.setText("Contact not found with name: " + name + "\n");
         }
@@ -292,20 +328,15 @@ class AddressBookGUI extends JFrame {
             return;
         }
 
-        Contact contactToEdit = addressBook.searchContact(name);
+        Contact contactToEdit = chooseContact(name, "edit");
         if (contactToEdit != null) {
             String phoneNumber = phoneField.getText();
             String emailAddress = emailField.getText();
-            if (!phoneNumber.isEmpty()) {
-                contactToEdit.setPhoneNumber(phoneNumber);
-            }
-            if (!emailAddress.isEmpty()) {
-                contactToEdit.setEmailAddress(emailAddress);
-            }
+            addressBook.editContact(contactToEdit, contactToEdit.getName(),
+                    phoneNumber.isEmpty() ? contactToEdit.getPhoneNumber() : phoneNumber,
+                    emailAddress.isEmpty() ? contactToEdit.getEmailAddress() : emailAddress);
             outputArea.append("Contact edited: " + contactToEdit.toString() + "\n");
             clearInputFields();
-        } else {
-            JOptionPane.showMessageDialog(this, "Contact not found with name: " + name, "Contact Not Found", JOptionPane.ERROR_MESSAGE);
         }
     }
 